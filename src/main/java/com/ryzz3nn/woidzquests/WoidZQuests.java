@@ -14,6 +14,12 @@ import com.ryzz3nn.woidzquests.managers.GlobalQuestManager;
 import com.ryzz3nn.woidzquests.managers.BossBarManager;
 import com.ryzz3nn.woidzquests.managers.ShopManager;
 import com.ryzz3nn.woidzquests.managers.PlaytimeTracker;
+import com.ryzz3nn.woidzquests.managers.PlacedBlockManager;
+import com.ryzz3nn.woidzquests.managers.PlayerSessionManager;
+import com.ryzz3nn.woidzquests.managers.HandoffManager;
+import com.ryzz3nn.woidzquests.managers.ProgressAccumulator;
+import com.ryzz3nn.woidzquests.managers.ClassifierRegistry;
+import com.ryzz3nn.woidzquests.managers.QuestResetClock;
 import com.ryzz3nn.woidzquests.integrations.JobsIntegration;
 import com.ryzz3nn.woidzquests.integrations.VaultIntegration;
 import com.ryzz3nn.woidzquests.integrations.WoidZFishingIntegration;
@@ -46,6 +52,12 @@ public final class WoidZQuests extends JavaPlugin {
     private BossBarManager bossBarManager;
     private ShopManager shopManager;
     private PlaytimeTracker playtimeTracker;
+    private PlacedBlockManager placedBlockManager;
+    private PlayerSessionManager playerSessionManager;
+    private HandoffManager handoffManager;
+    private ProgressAccumulator progressAccumulator;
+    private ClassifierRegistry classifierRegistry;
+    private QuestResetClock questResetClock;
     
     // Integrations
     private VaultIntegration vaultIntegration;
@@ -86,11 +98,29 @@ public final class WoidZQuests extends JavaPlugin {
             playtimeTracker.stopTracking();
         }
         
+        // Apply progress still queued for the quest worker
+        if (progressAccumulator != null) {
+            progressAccumulator.shutdown(5000L);
+        }
+        
         // Cleanup boss bars
         if (bossBarManager != null) {
             bossBarManager.cleanup();
         }
         
+        // Flush pending daily and weekly quest progress
+        if (dailyQuestManager != null) {
+            dailyQuestManager.shutdown();
+        }
+        if (weeklyQuestManager != null) {
+            weeklyQuestManager.shutdown();
+        }
+        
+        // Write buffered placed block changes
+        if (placedBlockManager != null) {
+            placedBlockManager.shutdown();
+        }
+        
         // Cleanup global quest refill tasks
         if (globalQuestManager != null) {
             globalQuestManager.cleanup();
@@ -101,6 +131,11 @@ public final class WoidZQuests extends JavaPlugin {
             playerDataManager.saveAllPlayerData();
         }
         
+        // Stop answering handoff requests
+        if (handoffManager != null) {
+            handoffManager.close();
+        }
+        
         // Close database connections
         if (databaseManager != null) {
             databaseManager.close();
@@ -137,6 +172,9 @@ public final class WoidZQuests extends JavaPlugin {
                 return false;
             }
             
+            // Handoff Manager (player data coherence across servers)
+            handoffManager = new HandoffManager(this);
+            
             // Player Data Manager
             playerDataManager = new PlayerDataManager(this);
             
@@ -146,6 +184,9 @@ public final class WoidZQuests extends JavaPlugin {
                 return false;
             }
             
+            // Quest Reset Clock (daily/weekly reset epochs)
+            questResetClock = new QuestResetClock(this);
+            
             // Daily Quest Manager
             dailyQuestManager = new DailyQuestManager(this);
             
@@ -155,9 +196,15 @@ public final class WoidZQuests extends JavaPlugin {
             // Global Quest Manager
             globalQuestManager = new GlobalQuestManager(this);
             
+            // Player Session Manager (login preloading, per-player cache lifecycle)
+            playerSessionManager = new PlayerSessionManager(this);
+            
             // Boss Bar Manager
             bossBarManager = new BossBarManager(this);
             
+            // Progress Accumulator (quest worker thread)
+            progressAccumulator = new ProgressAccumulator(this);
+            
             // Shop Manager
             shopManager = new ShopManager(this);
             
@@ -165,6 +212,12 @@ public final class WoidZQuests extends JavaPlugin {
             playtimeTracker = new PlaytimeTracker(this);
             playtimeTracker.startTracking();
             
+            // Placed Block Manager (anti-cheese)
+            placedBlockManager = new PlacedBlockManager(this);
+            
+            // Classifier Registry (material and mob categories for listeners)
+            classifierRegistry = new ClassifierRegistry(this);
+            
             // Start anti-cheese cleanup task
             startAntiCheeseCleanup();
             
@@ -214,6 +267,7 @@ public final class WoidZQuests extends JavaPlugin {
     
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(new BlockListener(this), this);
+        getServer().getPluginManager().registerEvents(new ChunkListener(this), this);
         getServer().getPluginManager().registerEvents(new FishingListener(this), this);
         getServer().getPluginManager().registerEvents(new CombatListener(this), this);
         getServer().getPluginManager().registerEvents(new CraftingListener(this), this);
@@ -236,6 +290,9 @@ public final class WoidZQuests extends JavaPlugin {
             configManager.reload();
             messagesManager.reload();
             questManager.reload();
+            classifierRegistry.reload();
+            questResetClock.reload();
+            playerSessionManager.reload();
             getLogger().info("WoidZQuests reloaded successfully!");
         } catch (Exception e) {
             getLogger().log(Level.SEVERE, "Error reloading plugin", e);
@@ -278,29 +335,9 @@ public final class WoidZQuests extends JavaPlugin {
         int cleanupIntervalMinutes = configManager.getInt("quests.anti-cheese.cleanup-interval-minutes", 60);
         long cleanupIntervalTicks = cleanupIntervalMinutes * 60 * 20L; // Convert to ticks
         
-        // Get tracking duration from config (default: 24 hours)
-        int trackingDurationHours = configManager.getInt("quests.anti-cheese.tracking-duration-hours", 24);
-        long trackingDurationMs = trackingDurationHours * 60 * 60 * 1000L;
-        
-        // Schedule repeating cleanup task
-        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
-            databaseManager.executeAsync(connection -> {
-                String sql = "DELETE FROM placed_blocks WHERE placed_at < ?";
-                
-                try (var statement = connection.prepareStatement(sql)) {
-                    long cutoffTime = System.currentTimeMillis() - trackingDurationMs;
-                    statement.setLong(1, cutoffTime);
-                    
-                    int deletedCount = statement.executeUpdate();
-                    
-                    if (deletedCount > 0) {
-                        getLogger().info("[Anti-Cheese] Cleaned up " + deletedCount + " old placed blocks");
-                    }
-                } catch (Exception e) {
-                    getLogger().warning("[Anti-Cheese] Failed to clean up old placed blocks: " + e.getMessage());
-                }
-            });
-        }, cleanupIntervalTicks, cleanupIntervalTicks); // Run periodically
+        // Schedule repeating cleanup task; expired hours are dropped as whole tables
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> placedBlockManager.dropExpiredBuckets(),
+            cleanupIntervalTicks, cleanupIntervalTicks); // Run periodically
         
         getLogger().info("[Anti-Cheese] Cleanup task started (interval: " + cleanupIntervalMinutes + " minutes)");
     }
@@ -362,6 +399,22 @@ public final class WoidZQuests extends JavaPlugin {
         return playtimeTracker;
     }
     
+    public PlacedBlockManager getPlacedBlockManager() {
+        return placedBlockManager;
+    }
+    
+    public PlayerSessionManager getPlayerSessionManager() {
+        return playerSessionManager;
+    }
+    
+    public HandoffManager getHandoffManager() {
+        return handoffManager;
+    }
+    
+    public ProgressAccumulator getProgressAccumulator() {
+        return progressAccumulator;
+    }
+    
     public NexoIntegration getNexoIntegration() {
         return nexoIntegration;
     }
@@ -1,6 +1,9 @@
 package com.ryzz3nn.woidzquests.commands;
 
 import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.database.DatabaseExecutor;
+import com.ryzz3nn.woidzquests.database.DatabaseWriter;
+import com.ryzz3nn.woidzquests.managers.ProgressAccumulator;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -53,6 +56,7 @@ public class WoidZQuestsCommand implements CommandExecutor, TabCompleter {
                 }
                 handleRerollCommand(sender, args);
             }
+            case "status" -> sendStatus(sender);
             case "help" -> sendHelp(sender);
             default -> {
                 sender.sendMessage(plugin.parseMessage(plugin.getMessagesManager().getMessage("unknown-command")));
@@ -195,6 +199,26 @@ public class WoidZQuestsCommand implements CommandExecutor, TabCompleter {
         }
     }
     
+    private void sendStatus(CommandSender sender) {
+        DatabaseExecutor.Stats stats = plugin.getDatabaseManager().getExecutorStats();
+        sender.sendMessage(plugin.parseMessage("<gray>[<light_purple><bold>WoidZQuests Status</bold></light_purple><gray>]"));
+        sender.sendMessage(plugin.parseMessage("<gray>Backend: <yellow>" + plugin.getDatabaseManager().getBackendName() + "</yellow>"));
+        sender.sendMessage(plugin.parseMessage("<gray>Read queue: <yellow>" + stats.queued() + "</yellow> tasks, <yellow>" + stats.activeLanes() + "</yellow> player lanes"));
+        sender.sendMessage(plugin.parseMessage("<gray>Completed: <green>" + stats.completed() + "</green> <gray>Failed: <red>" + stats.failed() + "</red> <gray>Rejected: <red>" + stats.rejected() + "</red>"));
+        sender.sendMessage(plugin.parseMessage(String.format("<gray>Wait: <yellow>%.2fms</yellow> avg, <yellow>%.2fms</yellow> max <gray>Run: <yellow>%.2fms</yellow> avg",
+            stats.averageWaitMs(), stats.maxWaitMs(), stats.averageRunMs())));
+        DatabaseWriter.Stats writerStats = plugin.getDatabaseManager().getWriterStats();
+        sender.sendMessage(plugin.parseMessage("<gray>Writer queue: <yellow>" + writerStats.queued() + "</yellow> writes, <yellow>" + writerStats.transactions() + "</yellow> commits"));
+        sender.sendMessage(plugin.parseMessage(String.format("<gray>Written: <green>%d</green> <gray>Failed: <red>%d</red> <gray>Rejected: <red>%d</red> <gray>Over limit: <yellow>%d</yellow> <gray>Batch: <yellow>%.1f</yellow> avg, <yellow>%d</yellow> max",
+            writerStats.committed(), writerStats.failed(), writerStats.rejected(), writerStats.overLimit(), writerStats.averageBatchSize(), writerStats.largestBatch())));
+        ProgressAccumulator.Stats workerStats = plugin.getProgressAccumulator().getStats();
+        sender.sendMessage(plugin.parseMessage("<gray>Quest worker: <yellow>" + workerStats.queued() + "</yellow> queued, <yellow>"
+            + workerStats.received() + "</yellow> events applied as <yellow>" + workerStats.applied() + "</yellow> updates"));
+        sender.sendMessage(plugin.parseMessage("<gray>Player sessions: <yellow>" + plugin.getPlayerSessionManager().getCachedCount()
+            + "</yellow> cached, <yellow>" + plugin.getPlayerSessionManager().getOfflineCount() + "</yellow> offline"));
+        sender.sendMessage(plugin.parseMessage("<gray>Placed block writes pending: <yellow>" + plugin.getPlacedBlockManager().getPendingWriteCount() + "</yellow>"));
+    }
+    
     private void sendHelp(CommandSender sender) {
         List<String> helpMessages = plugin.getMessagesManager().getMessageList("commands.help");
         if (sender.hasPermission("woidzquests.admin")) {
@@ -213,7 +237,7 @@ public class WoidZQuestsCommand implements CommandExecutor, TabCompleter {
         }
         
         if (args.length == 1) {
-            List<String> completions = new ArrayList<>(Arrays.asList("reload", "help", "qp", "questpoints", "reroll"));
+            List<String> completions = new ArrayList<>(Arrays.asList("reload", "help", "qp", "questpoints", "reroll", "status"));
             return completions.stream()
                 .filter(s -> s.toLowerCase().startsWith(args[0].toLowerCase()))
                 .toList();
@@ -107,6 +107,10 @@ public class ConfigManager {
         return config.getInt(path, defaultValue);
     }
     
+    public long getLong(String path, long defaultValue) {
+        return config.getLong(path, defaultValue);
+    }
+    
     public boolean getBoolean(String path, boolean defaultValue) {
         return config.getBoolean(path, defaultValue);
     }
@@ -0,0 +1,240 @@
+package com.ryzz3nn.woidzquests.database;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fixed pool of database worker threads with a bounded backlog.
+ * Tasks submitted with a lane key (a player's UUID) run one at a time in submission order,
+ * while different lanes and unkeyed tasks run in parallel.
+ */
+public class DatabaseExecutor {
+    
+    public enum OverflowPolicy {
+        CALLER_RUNS, // Run the task on the submitting thread
+        BLOCK,       // Wait for room in the backlog
+        DISCARD      // Drop the task and count it as rejected
+    }
+    
+    private final Logger logger;
+    private final ExecutorService workers;
+    private final Semaphore capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Map<Object, Lane> lanes = new HashMap<>(); // Guarded by itself
+    
+    // Metrics
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    
+    public DatabaseExecutor(Logger logger, int threads, int queueSize, OverflowPolicy overflowPolicy) {
+        this.logger = logger;
+        this.capacity = new Semaphore(Math.max(1, queueSize));
+        this.overflowPolicy = overflowPolicy;
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "WoidZQuests-DB-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), threadFactory);
+    }
+    
+    /**
+     * Submit a task, optionally ordered behind earlier tasks with the same lane key
+     * @param laneKey key whose tasks must run in order, or null for no ordering
+     */
+    public <T> CompletableFuture<T> submit(Object laneKey, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Job job = new Job(task, future, System.nanoTime());
+        
+        if (!capacity.tryAcquire()) {
+            switch (overflowPolicy) {
+                case CALLER_RUNS -> {
+                    // A lane with queued work keeps its order even past the bound
+                    if (laneKey == null || !enqueueIfLaneBusy(laneKey, job)) {
+                        job.run();
+                    }
+                    return future;
+                }
+                case BLOCK -> {
+                    try {
+                        capacity.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        rejected.increment();
+                        future.completeExceptionally(e);
+                        return future;
+                    }
+                }
+                case DISCARD -> {
+                    rejected.increment();
+                    future.completeExceptionally(new RejectedExecutionException("Database queue is full"));
+                    return future;
+                }
+            }
+        }
+        
+        job.holdsPermit = true;
+        queued.incrementAndGet();
+        try {
+            if (laneKey == null) {
+                workers.execute(job);
+            } else {
+                enqueue(laneKey, job);
+            }
+        } catch (RejectedExecutionException e) {
+            // Executor already shut down
+            queued.decrementAndGet();
+            capacity.release();
+            rejected.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    private void enqueue(Object laneKey, Job job) {
+        synchronized (lanes) {
+            Lane lane = lanes.computeIfAbsent(laneKey, Lane::new);
+            lane.jobs.add(job);
+            if (!lane.running) {
+                lane.running = true;
+                workers.execute(() -> drain(lane));
+            }
+        }
+    }
+    
+    private boolean enqueueIfLaneBusy(Object laneKey, Job job) {
+        synchronized (lanes) {
+            Lane lane = lanes.get(laneKey);
+            if (lane == null) {
+                return false;
+            }
+            lane.jobs.add(job);
+            return true;
+        }
+    }
+    
+    private void drain(Lane lane) {
+        while (true) {
+            Job next;
+            synchronized (lanes) {
+                next = lane.jobs.poll();
+                if (next == null) {
+                    lane.running = false;
+                    lanes.remove(lane.key);
+                    return;
+                }
+            }
+            next.run();
+        }
+    }
+    
+    /**
+     * Stop accepting tasks and wait for queued ones to finish
+     */
+    public void shutdown(long timeoutMillis) {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warning("Database executor did not finish " + queued.get() + " queued tasks before shutdown");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+    
+    public Stats getStats() {
+        long done = completed.sum() + failed.sum();
+        int activeLanes;
+        synchronized (lanes) {
+            activeLanes = lanes.size();
+        }
+        return new Stats(
+            queued.get(),
+            activeLanes,
+            completed.sum(),
+            failed.sum(),
+            rejected.sum(),
+            done > 0 ? totalWaitNanos.sum() / done / 1_000_000.0 : 0.0,
+            maxWaitNanos.get() / 1_000_000.0,
+            done > 0 ? totalRunNanos.sum() / done / 1_000_000.0 : 0.0
+        );
+    }
+    
+    /**
+     * Point-in-time executor metrics; times are in milliseconds
+     */
+    public record Stats(int queued, int activeLanes, long completed, long failed, long rejected,
+                        double averageWaitMs, double maxWaitMs, double averageRunMs) {}
+    
+    private static final class Lane {
+        private final Object key;
+        private final Queue<Job> jobs = new ArrayDeque<>();
+        private boolean running;
+        
+        private Lane(Object key) {
+            this.key = key;
+        }
+    }
+    
+    private final class Job implements Runnable {
+        private final Callable<?> task;
+        private final CompletableFuture<Object> future;
+        private final long submittedAt;
+        private boolean holdsPermit;
+        
+        @SuppressWarnings("unchecked")
+        private Job(Callable<?> task, CompletableFuture<?> future, long submittedAt) {
+            this.task = task;
+            this.future = (CompletableFuture<Object>) future;
+            this.submittedAt = submittedAt;
+        }
+        
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            long waitNanos = startedAt - submittedAt;
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            
+            if (holdsPermit) {
+                queued.decrementAndGet();
+                capacity.release();
+            }
+            
+            try {
+                future.complete(task.call());
+                completed.increment();
+            } catch (Throwable t) {
+                failed.increment();
+                logger.log(Level.SEVERE, "Database task failed", t);
+                future.completeExceptionally(t);
+            } finally {
+                totalRunNanos.add(System.nanoTime() - startedAt);
+            }
+        }
+    }
+}
@@ -4,19 +4,42 @@ import com.ryzz3nn.woidzquests.WoidZQuests;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
+/**
+ * Database access for every backend. All mutations go through one writer thread, which applies
+ * them in grouped transactions; queries run on pooled connections.
+ * <p>
+ * SQLite (the default) gets a dedicated writer connection and a pool of read-only connections.
+ * MySQL/MariaDB, PostgreSQL and H2 share one server-side store between backends and use a
+ * single pool for both, with SQL differences handled by {@link SqlDialect}.
+ */
 @Getter
 public class DatabaseManager {
     
     private final WoidZQuests plugin;
-    private HikariDataSource dataSource;
+    private HikariDataSource dataSource; // Query connections (read-only on SQLite)
+    private HikariDataSource writerDataSource; // SQLite only; networked backends write through dataSource
+    private DatabaseWriter writer;
+    private DatabaseExecutor executor;
+    private SqlDialect dialect;
+    private String backendName;
     
     public DatabaseManager(WoidZQuests plugin) {
         this.plugin = plugin;
@@ -25,6 +48,7 @@ public class DatabaseManager {
     public boolean initialize() {
         try {
             setupDatabase();
+            setupExecutor();
             createTables();
             return true;
         } catch (Exception e) {
@@ -33,7 +57,94 @@ public class DatabaseManager {
         }
     }
     
-    private void setupDatabase() {
+    private void setupDatabase() throws SQLException {
+        backendName = plugin.getConfigManager().getString("database.type", "sqlite").toLowerCase();
+        switch (backendName) {
+            case "mysql", "mariadb", "postgresql", "h2" -> setupPooledDatabase();
+            default -> {
+                backendName = "sqlite";
+                setupSQLiteDatabase();
+            }
+        }
+        
+        DatabaseWriter.OverflowPolicy writePolicy;
+        String policyName = plugin.getConfigManager().getString("database.write-overflow-policy", "BLOCK");
+        try {
+            writePolicy = DatabaseWriter.OverflowPolicy.valueOf(policyName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown database.write-overflow-policy '" + policyName + "', using BLOCK");
+            writePolicy = DatabaseWriter.OverflowPolicy.BLOCK;
+        }
+        
+        // The main thread never waits for the writer, whatever the policy
+        writer = new DatabaseWriter(plugin.getLogger(), writerDataSource != null ? writerDataSource : dataSource,
+            plugin.getConfigManager().getInt("database.executor-queue-size", 5000),
+            plugin.getConfigManager().getInt("database.write-batch-size", 256),
+            writePolicy,
+            plugin.getConfigManager().getLong("database.write-block-timeout-ms", 1000L),
+            () -> !Bukkit.isPrimaryThread());
+    }
+    
+    private void setupPooledDatabase() {
+        String host = plugin.getConfigManager().getString("database.host", "localhost");
+        String name = plugin.getConfigManager().getString("database.name", "woidzquests");
+        
+        HikariConfig config = new HikariConfig();
+        switch (backendName) {
+            case "mysql" -> {
+                dialect = SqlDialect.MYSQL;
+                config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+                config.setJdbcUrl("jdbc:mysql://" + host + ":" + plugin.getConfigManager().getInt("database.port", 3306) + "/" + name);
+                config.addDataSourceProperty("cachePrepStmts", "true");
+                config.addDataSourceProperty("prepStmtCacheSize", "250");
+                config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+                config.addDataSourceProperty("useServerPrepStmts", "true");
+                config.addDataSourceProperty("rewriteBatchedStatements", "true"); // Batches become multi-row inserts
+            }
+            case "mariadb" -> {
+                dialect = SqlDialect.MYSQL;
+                config.setDriverClassName("org.mariadb.jdbc.Driver");
+                config.setJdbcUrl("jdbc:mariadb://" + host + ":" + plugin.getConfigManager().getInt("database.port", 3306) + "/" + name);
+            }
+            case "postgresql" -> {
+                dialect = SqlDialect.POSTGRESQL;
+                config.setDriverClassName("org.postgresql.Driver");
+                config.setJdbcUrl("jdbc:postgresql://" + host + ":" + plugin.getConfigManager().getInt("database.port", 5432) + "/" + name);
+                config.addDataSourceProperty("reWriteBatchedInserts", "true");
+                // Dates are bound as strings; let the server cast them to the column type
+                config.addDataSourceProperty("stringtype", "unspecified");
+            }
+            default -> {
+                // Embedded H2 in MySQL mode, for running the networked code path locally
+                dialect = SqlDialect.MYSQL;
+                String path = new File(plugin.getConfigManager().getDatabasePath()).getAbsolutePath().replaceFirst("\\.db$", "");
+                config.setDriverClassName("org.h2.Driver");
+                config.setJdbcUrl("jdbc:h2:file:" + path + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE");
+            }
+        }
+        
+        config.setUsername(plugin.getConfigManager().getString("database.username", "root"));
+        config.setPassword(plugin.getConfigManager().getString("database.password", ""));
+        config.setPoolName("WoidZQuests");
+        config.setMaximumPoolSize(plugin.getConfigManager().getInt("database.pool-size", 10));
+        config.setConnectionTimeout(plugin.getConfigManager().getInt("database.connection-timeout", 30000));
+        config.setIdleTimeout(600000);
+        config.setMaxLifetime(1800000);
+        config.setLeakDetectionThreshold(60000);
+        
+        ConfigurationSection properties = plugin.getConfigManager().getConfig().getConfigurationSection("database.properties");
+        if (properties != null) {
+            for (String key : properties.getKeys(false)) {
+                config.addDataSourceProperty(key, properties.getString(key));
+            }
+        }
+        
+        dataSource = new HikariDataSource(config);
+        plugin.getLogger().info("Database initialized (" + backendName + " at " + config.getJdbcUrl() + ", pool of " + config.getMaximumPoolSize() + ")");
+    }
+    
+    private void setupSQLiteDatabase() throws SQLException {
+        dialect = SqlDialect.SQLITE;
         String databasePath = plugin.getConfigManager().getDatabasePath();
         File databaseFile = new File(databasePath);
         
@@ -42,44 +153,129 @@ public class DatabaseManager {
             databaseFile.getParentFile().mkdirs();
         }
         
+        String url = "jdbc:sqlite:" + databasePath;
+        
+        // The writer opens the file first so WAL mode is in place before any reader connects
+        SQLiteDataSource writerSource = new SQLiteDataSource(createSQLiteConfig(false));
+        writerSource.setUrl(url);
+        
+        HikariConfig writerConfig = new HikariConfig();
+        writerConfig.setDataSource(writerSource);
+        writerConfig.setPoolName("WoidZQuests-Writer");
+        writerConfig.setMaximumPoolSize(1);
+        writerConfig.setMinimumIdle(1);
+        writerConfig.setMaxLifetime(0); // SQLite connections never go stale
+        
+        writerDataSource = new HikariDataSource(writerConfig);
+        try (Connection writerConnection = writerDataSource.getConnection()) {
+            verifyPragmas(writerConnection, "writer");
+        }
+        
+        SQLiteDataSource readerSource = new SQLiteDataSource(createSQLiteConfig(true));
+        readerSource.setUrl(url);
+        
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl("jdbc:sqlite:" + databasePath);
-        config.setDriverClassName("org.sqlite.JDBC");
-        config.setMaximumPoolSize(plugin.getConfigManager().getInt("database.connection-pool-size", 10));
+        config.setDataSource(readerSource);
+        config.setPoolName("WoidZQuests-Readers");
+        config.setMaximumPoolSize(plugin.getConfigManager().getInt("database.read-pool-size", 4));
         config.setConnectionTimeout(plugin.getConfigManager().getInt("database.connection-timeout", 30000));
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
         config.setLeakDetectionThreshold(60000);
-        
-        // SQLite specific settings
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        config.addDataSourceProperty("journal_mode", "WAL");
-        config.addDataSourceProperty("synchronous", "NORMAL");
-        config.addDataSourceProperty("cache_size", "10000");
-        config.addDataSourceProperty("temp_store", "MEMORY");
+        config.setReadOnly(true);
         
         dataSource = new HikariDataSource(config);
+        try (Connection readerConnection = dataSource.getConnection()) {
+            verifyPragmas(readerConnection, "reader");
+        }
         
-        plugin.getLogger().info("Database connection pool initialized");
+        plugin.getLogger().info("Database initialized (sqlite, 1 writer, " + config.getMaximumPoolSize() + " readers)");
     }
     
+    /**
+     * Pragmas are applied by the driver on every connection it opens
+     */
+    private SQLiteConfig createSQLiteConfig(boolean readOnly) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(plugin.getConfigManager().getInt("database.busy-timeout", 5000));
+        config.setCacheSize(plugin.getConfigManager().getInt("database.cache-size", -16000));
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(plugin.getConfigManager().getLong("database.mmap-size", 268435456L)));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        
+        if (readOnly) {
+            // Journal mode is a property of the file, set by the writer
+            config.setReadOnly(true);
+        } else {
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        }
+        return config;
+    }
+    
+    /**
+     * Read back the pragmas a connection actually runs with and warn about any that did not apply
+     */
+    private void verifyPragmas(Connection connection, String role) throws SQLException {
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("journal_mode", "wal");
+        expected.put("busy_timeout", String.valueOf(plugin.getConfigManager().getInt("database.busy-timeout", 5000)));
+        expected.put("cache_size", String.valueOf(plugin.getConfigManager().getInt("database.cache-size", -16000)));
+        expected.put("mmap_size", String.valueOf(plugin.getConfigManager().getLong("database.mmap-size", 268435456L)));
+        expected.put("synchronous", "1"); // NORMAL
+        
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, String> pragma : expected.entrySet()) {
+            String actual;
+            try (PreparedStatement statement = connection.prepareStatement("PRAGMA " + pragma.getKey());
+                 ResultSet resultSet = statement.executeQuery()) {
+                actual = resultSet.next() ? resultSet.getString(1) : null;
+            }
+            
+            if (!pragma.getValue().equalsIgnoreCase(actual)) {
+                plugin.getLogger().warning("SQLite " + role + " connection has " + pragma.getKey() + "=" + actual + " (expected " + pragma.getValue() + ")");
+            }
+            summary.append(pragma.getKey()).append('=').append(actual).append(' ');
+        }
+        
+        plugin.getLogger().info("SQLite " + role + " pragmas: " + summary.toString().trim());
+    }
+    
+    private void setupExecutor() {
+        DatabaseExecutor.OverflowPolicy overflowPolicy;
+        String policyName = plugin.getConfigManager().getString("database.executor-overflow-policy", "CALLER_RUNS");
+        try {
+            overflowPolicy = DatabaseExecutor.OverflowPolicy.valueOf(policyName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown database.executor-overflow-policy '" + policyName + "', using CALLER_RUNS");
+            overflowPolicy = DatabaseExecutor.OverflowPolicy.CALLER_RUNS;
+        }
+        
+        executor = new DatabaseExecutor(plugin.getLogger(),
+            plugin.getConfigManager().getInt("database.executor-threads", 4),
+            plugin.getConfigManager().getInt("database.executor-queue-size", 5000),
+            overflowPolicy);
+    }
+    
+    /**
+     * Create the schema. Keyed and indexed text columns are VARCHAR so MySQL can index them, and
+     * player rows are written lazily, so child tables do not declare foreign keys.
+     */
     private void createTables() throws SQLException {
-        try (Connection connection = getConnection()) {
+        writer.execute(connection -> {
             // Player data table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS player_data (
-                    uuid TEXT PRIMARY KEY,
-                    username TEXT NOT NULL,
+                    uuid VARCHAR(36) PRIMARY KEY,
+                    username VARCHAR(64) NOT NULL,
                     quest_points INTEGER DEFAULT 0,
                     daily_rerolls INTEGER DEFAULT 0,
                     weekly_rerolls INTEGER DEFAULT 0,
-                    last_daily_reset TEXT,
-                    last_weekly_reset TEXT,
+                    last_daily_reset VARCHAR(32),
+                    last_weekly_reset VARCHAR(32),
                     total_quests_completed INTEGER DEFAULT 0,
-                    join_date TEXT NOT NULL,
-                    last_seen TEXT NOT NULL,
+                    join_date VARCHAR(32) NOT NULL,
+                    last_seen VARCHAR(32) NOT NULL,
+                    data_version BIGINT DEFAULT 0,
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
@@ -88,39 +284,38 @@ public class DatabaseManager {
             // Player quests table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS player_quests (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    player_uuid TEXT NOT NULL,
-                    quest_id TEXT NOT NULL,
-                    quest_type TEXT NOT NULL,
+                    id VARCHAR(64) PRIMARY KEY,
+                    player_uuid VARCHAR(36) NOT NULL,
+                    quest_id VARCHAR(128) NOT NULL,
+                    quest_type VARCHAR(32) NOT NULL,
                     quest_data TEXT NOT NULL,
                     progress INTEGER DEFAULT 0,
                     target INTEGER NOT NULL,
-                    status TEXT DEFAULT 'ACTIVE',
+                    status VARCHAR(32) DEFAULT 'ACTIVE',
                     is_tracked BOOLEAN DEFAULT FALSE,
                     started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     completed_at TIMESTAMP NULL,
-                    expires_at TIMESTAMP NULL,
-                    FOREIGN KEY (player_uuid) REFERENCES player_data(uuid) ON DELETE CASCADE
+                    expires_at TIMESTAMP NULL
                 )
             """);
             
             // Quest definitions table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS quest_definitions (
-                    id TEXT PRIMARY KEY,
-                    name TEXT NOT NULL,
+                    id VARCHAR(128) PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
                     description TEXT NOT NULL,
-                    category TEXT NOT NULL,
-                    type TEXT NOT NULL,
-                    difficulty TEXT NOT NULL,
+                    category VARCHAR(32) NOT NULL,
+                    type VARCHAR(32) NOT NULL,
+                    difficulty VARCHAR(32) NOT NULL,
                     target_min INTEGER NOT NULL,
                     target_max INTEGER NOT NULL,
                     requirements TEXT,
                     rewards TEXT NOT NULL,
                     cooldown INTEGER DEFAULT 0,
                     repeatable BOOLEAN DEFAULT TRUE,
-                    job_specific TEXT NULL,
-                    world_specific TEXT NULL,
+                    job_specific VARCHAR(64) NULL,
+                    world_specific VARCHAR(64) NULL,
                     enabled BOOLEAN DEFAULT TRUE,
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -130,37 +325,21 @@ public class DatabaseManager {
             // Player statistics table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS player_statistics (
-                    player_uuid TEXT NOT NULL,
-                    stat_type TEXT NOT NULL,
+                    player_uuid VARCHAR(36) NOT NULL,
+                    stat_type VARCHAR(64) NOT NULL,
                     stat_value INTEGER DEFAULT 0,
                     last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    PRIMARY KEY (player_uuid, stat_type),
-                    FOREIGN KEY (player_uuid) REFERENCES player_data(uuid) ON DELETE CASCADE
-                )
-            """);
-            
-            // Placed blocks tracking (anti-cheese)
-            executeUpdate(connection, """
-                CREATE TABLE IF NOT EXISTS placed_blocks (
-                    world TEXT NOT NULL,
-                    x INTEGER NOT NULL,
-                    y INTEGER NOT NULL,
-                    z INTEGER NOT NULL,
-                    material TEXT NOT NULL,
-                    player_uuid TEXT NOT NULL,
-                    placed_at INTEGER NOT NULL,
-                    PRIMARY KEY (world, x, y, z)
+                    PRIMARY KEY (player_uuid, stat_type)
                 )
             """);
             
-            // Create index for placed blocks cleanup
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_placed_blocks_time ON placed_blocks(placed_at)");
+            // Placed blocks tracking (anti-cheese) uses hourly tables managed by PlacedBlockManager
             
             // Global statistics table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS global_statistics (
-                    stat_type TEXT PRIMARY KEY,
-                    stat_value INTEGER DEFAULT 0,
+                    stat_type VARCHAR(64) PRIMARY KEY,
+                    stat_value BIGINT DEFAULT 0,
                     last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
             """);
@@ -168,82 +347,111 @@ public class DatabaseManager {
             // Global quests table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS global_quests (
-                    id TEXT PRIMARY KEY,
-                    name TEXT NOT NULL,
+                    id VARCHAR(64) PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
                     description TEXT NOT NULL,
-                    type TEXT NOT NULL,
-                    target TEXT NOT NULL,
-                    target_amount INTEGER NOT NULL,
-                    current_progress INTEGER DEFAULT 0,
+                    type VARCHAR(64) NOT NULL,
+                    target VARCHAR(64) NOT NULL,
+                    target_amount BIGINT NOT NULL,
+                    current_progress BIGINT DEFAULT 0,
                     completed BOOLEAN DEFAULT FALSE,
-                    display_material TEXT NOT NULL,
+                    display_material VARCHAR(64) NOT NULL,
                     reward_data TEXT NOT NULL,
-                    player_contributions TEXT DEFAULT '{}',
-                    player_claimed TEXT DEFAULT '{}',
+                    player_contributions TEXT,
+                    player_claimed TEXT,
+                    refill_at BIGINT,
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
             """);
             
+            // Global quest contributions (one row per contributor, written as deltas)
+            executeUpdate(connection, """
+                CREATE TABLE IF NOT EXISTS global_quest_contributions (
+                    quest_id VARCHAR(64) NOT NULL,
+                    player_uuid VARCHAR(36) NOT NULL,
+                    contribution BIGINT DEFAULT 0,
+                    claimed BOOLEAN DEFAULT FALSE,
+                    PRIMARY KEY (quest_id, player_uuid)
+                )
+            """);
+            
             // Daily quests table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS daily_quests (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    player_uuid TEXT NOT NULL,
-                    quest_id TEXT NOT NULL,
-                    quest_name TEXT NOT NULL,
+                    id %s,
+                    player_uuid VARCHAR(36) NOT NULL,
+                    quest_id VARCHAR(128) NOT NULL,
+                    template_id VARCHAR(128),
+                    quest_name VARCHAR(255) NOT NULL,
                     quest_description TEXT NOT NULL,
-                    quest_type TEXT NOT NULL,
-                    display_material TEXT NOT NULL,
-                    target TEXT NOT NULL,
+                    quest_type VARCHAR(32) NOT NULL,
+                    display_material VARCHAR(64) NOT NULL,
+                    target VARCHAR(64) NOT NULL,
                     target_amount INTEGER NOT NULL,
                     current_progress INTEGER DEFAULT 0,
                     completed BOOLEAN DEFAULT FALSE,
                     claimed BOOLEAN DEFAULT FALSE,
-                    requirements TEXT DEFAULT '{}',
+                    requirements TEXT,
                     reward_data TEXT NOT NULL,
-                    created_date INTEGER NOT NULL,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    FOREIGN KEY (player_uuid) REFERENCES player_data(uuid) ON DELETE CASCADE
+                    created_date BIGINT NOT NULL,
+                    reset_epoch BIGINT,
+                    slot_index INTEGER,
+                    rerolls INTEGER DEFAULT 0,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
-            """);
+            """.formatted(dialect.autoIncrementKey()));
             
             // Weekly quests table
             executeUpdate(connection, """
                 CREATE TABLE IF NOT EXISTS weekly_quests (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    player_uuid TEXT NOT NULL,
-                    quest_id TEXT NOT NULL,
-                    quest_name TEXT NOT NULL,
+                    id %s,
+                    player_uuid VARCHAR(36) NOT NULL,
+                    quest_id VARCHAR(128) NOT NULL,
+                    quest_name VARCHAR(255) NOT NULL,
                     quest_description TEXT NOT NULL,
-                    quest_type TEXT NOT NULL,
-                    display_material TEXT NOT NULL,
-                    target TEXT NOT NULL,
+                    quest_type VARCHAR(32) NOT NULL,
+                    display_material VARCHAR(64) NOT NULL,
+                    target VARCHAR(64) NOT NULL,
                     target_amount INTEGER NOT NULL,
                     current_progress INTEGER DEFAULT 0,
                     completed BOOLEAN DEFAULT FALSE,
                     claimed BOOLEAN DEFAULT FALSE,
                     reward_data TEXT NOT NULL,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    FOREIGN KEY (player_uuid) REFERENCES player_data(uuid) ON DELETE CASCADE
+                    reset_epoch BIGINT,
+                    slot_index INTEGER,
+                    rerolls INTEGER DEFAULT 0,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
-            """);
+            """.formatted(dialect.autoIncrementKey()));
+            
+            // Columns added after the first release
+            addColumnIfMissing(connection, "player_data", "data_version", "BIGINT DEFAULT 0");
+            addColumnIfMissing(connection, "daily_quests", "template_id", "VARCHAR(128)");
+            addColumnIfMissing(connection, "daily_quests", "reset_epoch", "BIGINT");
+            addColumnIfMissing(connection, "daily_quests", "slot_index", "INTEGER");
+            addColumnIfMissing(connection, "daily_quests", "rerolls", "INTEGER DEFAULT 0");
+            addColumnIfMissing(connection, "weekly_quests", "reset_epoch", "BIGINT");
+            addColumnIfMissing(connection, "weekly_quests", "slot_index", "INTEGER");
+            addColumnIfMissing(connection, "weekly_quests", "rerolls", "INTEGER DEFAULT 0");
+            addColumnIfMissing(connection, "global_quests", "refill_at", "BIGINT");
             
             // Create indexes for better performance
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_player_quests_uuid ON player_quests(player_uuid)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_player_quests_status ON player_quests(status)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_player_quests_type ON player_quests(quest_type)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_player_statistics_uuid ON player_statistics(player_uuid)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_placed_blocks_player ON placed_blocks(player_uuid)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_placed_blocks_material ON placed_blocks(material)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_global_quests_type ON global_quests(type)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_global_quests_completed ON global_quests(completed)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_daily_quests_player ON daily_quests(player_uuid)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_daily_quests_date ON daily_quests(created_date)");
-            executeUpdate(connection, "CREATE INDEX IF NOT EXISTS idx_weekly_quests_player ON weekly_quests(player_uuid)");
+            createIndex(connection, "idx_player_quests_uuid", "player_quests", "player_uuid");
+            createIndex(connection, "idx_player_quests_status", "player_quests", "status");
+            createIndex(connection, "idx_player_quests_type", "player_quests", "quest_type");
+            createIndex(connection, "idx_player_statistics_uuid", "player_statistics", "player_uuid");
+            createIndex(connection, "idx_global_quests_type", "global_quests", "type");
+            createIndex(connection, "idx_global_quests_completed", "global_quests", "completed");
+            createIndex(connection, "idx_global_contributions_player", "global_quest_contributions", "player_uuid");
+            createIndex(connection, "idx_daily_quests_player", "daily_quests", "player_uuid");
+            createQuestKey(connection, "daily_quests");
+            createIndex(connection, "idx_daily_quests_date", "daily_quests", "created_date");
+            createIndex(connection, "idx_weekly_quests_player", "weekly_quests", "player_uuid");
+            createQuestKey(connection, "weekly_quests");
             
             plugin.getLogger().info("Database tables created successfully");
-        }
+        });
     }
     
     private void executeUpdate(Connection connection, String sql) throws SQLException {
@@ -252,32 +460,142 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * Create an index unless it exists (MySQL has no CREATE INDEX IF NOT EXISTS)
+     */
+    private void createIndex(Connection connection, String name, String table, String... columns) throws SQLException {
+        if (!indexExists(connection, name, table)) {
+            executeUpdate(connection, "CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")");
+        }
+    }
+    
+    /**
+     * Make (player_uuid, quest_id) unique so a quest table's rows can be upserted. Tables from older versions
+     * may hold duplicate rows; the newest of each is kept, and the plain index it replaces is dropped.
+     */
+    private void createQuestKey(Connection connection, String table) throws SQLException {
+        String name = "uq_" + table + "_player_quest";
+        if (indexExists(connection, name, table)) {
+            return;
+        }
+        
+        // The derived table lets MySQL read the table it deletes from
+        executeUpdate(connection, """
+            DELETE FROM %1$s WHERE id NOT IN (
+                SELECT id FROM (SELECT MAX(id) AS id FROM %1$s GROUP BY player_uuid, quest_id) newest
+            )
+        """.formatted(table));
+        executeUpdate(connection, "CREATE UNIQUE INDEX " + name + " ON " + table + " (player_uuid, quest_id)");
+        
+        String replaced = "idx_" + table + "_player_quest";
+        if (indexExists(connection, replaced, table)) {
+            executeUpdate(connection, dialect == SqlDialect.MYSQL
+                ? "DROP INDEX " + replaced + " ON " + table
+                : "DROP INDEX " + replaced);
+        }
+    }
+    
+    private boolean indexExists(Connection connection, String name, String table) throws SQLException {
+        try (ResultSet resultSet = connection.getMetaData().getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (resultSet.next()) {
+                if (name.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Add a column to a table created by an older version of the plugin
+     */
+    private void addColumnIfMissing(Connection connection, String table, String column, String definition) throws SQLException {
+        try (ResultSet resultSet = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(), table, null)) {
+            while (resultSet.next()) {
+                if (column.equalsIgnoreCase(resultSet.getString("COLUMN_NAME"))) {
+                    return;
+                }
+            }
+        }
+        executeUpdate(connection, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        plugin.getLogger().info("Added column " + column + " to " + table);
+    }
+    
+    /**
+     * Names (lower case) of the tables in the plugin's database or schema
+     */
+    public Set<String> listTables(Connection connection) throws SQLException {
+        Set<String> tables = new HashSet<>();
+        try (ResultSet resultSet = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(), "%", new String[] {"TABLE"})) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString("TABLE_NAME").toLowerCase());
+            }
+        }
+        return tables;
+    }
+    
+    /**
+     * Borrow a connection for queries (read-only on SQLite). Writes must go through executeAsync or executeWrite.
+     */
     public Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
     
+    /**
+     * Queue a write on the writer connection; it is committed together with other queued writes.
+     * There is a single writer and writes apply in submission order, so writes for the same player never interleave.
+     */
     public CompletableFuture<Void> executeAsync(DatabaseOperation operation) {
-        return CompletableFuture.runAsync(() -> {
-            try (Connection connection = getConnection()) {
-                operation.execute(connection);
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Database operation failed", e);
-            }
-        });
+        return writer.submit(operation);
+    }
+    
+    /**
+     * Run a write on the writer connection and wait for it to commit
+     */
+    public void executeWrite(DatabaseOperation operation) throws SQLException {
+        writer.execute(operation);
     }
     
     public <T> CompletableFuture<T> queryAsync(DatabaseQuery<T> query) {
-        return CompletableFuture.supplyAsync(() -> {
+        return queryAsync(null, query);
+    }
+    
+    /**
+     * Run a query on a pooled connection off the main thread.
+     * Queries for the same player run in the order they were submitted.
+     */
+    public <T> CompletableFuture<T> queryAsync(UUID playerId, DatabaseQuery<T> query) {
+        CompletableFuture<T> future = executor.submit(playerId, () -> {
             try (Connection connection = getConnection()) {
                 return query.execute(connection);
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Database query failed", e);
-                return null;
             }
         });
+        // Failures are logged by the executor; callers get null as before
+        return future.exceptionally(e -> null);
+    }
+    
+    public DatabaseExecutor.Stats getExecutorStats() {
+        return executor.getStats();
+    }
+    
+    public DatabaseWriter.Stats getWriterStats() {
+        return writer.getStats();
     }
     
     public void close() {
+        int shutdownTimeout = plugin.getConfigManager().getInt("database.executor-shutdown-timeout", 10000);
+        if (executor != null) {
+            executor.shutdown(shutdownTimeout);
+        }
+        
+        if (writer != null) {
+            writer.shutdown(shutdownTimeout);
+        }
+        
+        if (writerDataSource != null && !writerDataSource.isClosed()) {
+            writerDataSource.close();
+        }
+        
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             plugin.getLogger().info("Database connection pool closed");
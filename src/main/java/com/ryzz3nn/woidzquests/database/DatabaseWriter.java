@@ -0,0 +1,251 @@
+package com.ryzz3nn.woidzquests.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The only thread that writes to the database.
+ * Operations are applied in submission order; whatever is queued when the thread wakes up is
+ * committed as a single transaction on one connection, with a savepoint per operation so one
+ * failing operation does not undo the others.
+ * Writes are never dropped: the queue limit only makes submitters that may wait slow down, and
+ * anything past it is queued anyway with a warning.
+ */
+public class DatabaseWriter {
+    
+    public enum OverflowPolicy {
+        BLOCK, // Threads other than the main thread wait up to the block timeout for room
+        QUEUE  // Nobody waits; writes past the limit are queued with a warning
+    }
+    
+    private static final long OVERFLOW_WARNING_INTERVAL_MS = 30_000;
+    
+    private final Logger logger;
+    private final DataSource dataSource;
+    private Connection connection; // Only set on the writer thread while a batch is open
+    private final BlockingQueue<WriteTask> queue = new LinkedBlockingQueue<>();
+    private final int queueLimit;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockMillis;
+    private final BooleanSupplier mayBlock; // False on threads that must never wait for the writer
+    private final Object room = new Object(); // Notified when a batch is taken off the queue
+    private final int maxBatchSize;
+    private final Thread thread;
+    private volatile boolean running = true;
+    
+    // Metrics
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overLimit = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+    private final AtomicLong largestBatch = new AtomicLong();
+    private final AtomicLong lastOverflowWarning = new AtomicLong();
+    
+    public DatabaseWriter(Logger logger, DataSource dataSource, int queueLimit, int maxBatchSize,
+                          OverflowPolicy overflowPolicy, long blockMillis, BooleanSupplier mayBlock) {
+        this.logger = logger;
+        this.dataSource = dataSource;
+        this.queueLimit = Math.max(1, queueLimit);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.overflowPolicy = overflowPolicy;
+        this.blockMillis = Math.max(0, blockMillis);
+        this.mayBlock = mayBlock;
+        this.thread = new Thread(this::run, "WoidZQuests-DB-Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Queue a write; the future completes once its transaction has committed
+     */
+    public CompletableFuture<Void> submit(DatabaseManager.DatabaseOperation operation) {
+        WriteTask task = new WriteTask(operation, new CompletableFuture<>());
+        if (!running) {
+            rejected.increment();
+            task.future.completeExceptionally(new RejectedExecutionException("Database writer is shut down"));
+            return task.future;
+        }
+        
+        if (queue.size() >= queueLimit) {
+            awaitRoom();
+        }
+        queue.add(task);
+        return task.future;
+    }
+    
+    /**
+     * Wait for the writer to catch up if this thread may, then note a write queued past the limit
+     */
+    private void awaitRoom() {
+        if (overflowPolicy == OverflowPolicy.BLOCK && blockMillis > 0
+                && Thread.currentThread() != thread && mayBlock.getAsBoolean()) {
+            long deadline = System.currentTimeMillis() + blockMillis;
+            synchronized (room) {
+                long remaining;
+                while (queue.size() >= queueLimit && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    try {
+                        room.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+        
+        if (queue.size() >= queueLimit) {
+            overLimit.increment();
+            long now = System.currentTimeMillis();
+            long last = lastOverflowWarning.get();
+            if (now - last >= OVERFLOW_WARNING_INTERVAL_MS && lastOverflowWarning.compareAndSet(last, now)) {
+                logger.warning("Database write queue is past its limit of " + queueLimit + " (" + queue.size()
+                    + " queued); the database is not keeping up, writes are still queued");
+            }
+        }
+    }
+    
+    /**
+     * Run a write and wait for it to commit (startup, migrations and shutdown)
+     */
+    public void execute(DatabaseManager.DatabaseOperation operation) throws SQLException {
+        if (Thread.currentThread() == thread) {
+            operation.execute(connection);
+            return;
+        }
+        
+        try {
+            submit(operation).join();
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Database write failed", cause);
+        }
+    }
+    
+    private void run() {
+        List<WriteTask> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                WriteTask first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                synchronized (room) {
+                    room.notifyAll();
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void writeBatch(List<WriteTask> batch) {
+        try (Connection batchConnection = dataSource.getConnection()) {
+            connection = batchConnection;
+            connection.setAutoCommit(false);
+            try {
+                commitBatch(batch);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to commit " + batch.size() + " database operations", e);
+            for (WriteTask task : batch) {
+                // Operations that already failed on their own keep their original error
+                if (task.future.completeExceptionally(e)) {
+                    failed.increment();
+                }
+            }
+        } finally {
+            connection = null;
+        }
+    }
+    
+    private void commitBatch(List<WriteTask> batch) throws SQLException {
+        List<WriteTask> applied = new ArrayList<>(batch.size());
+        for (WriteTask task : batch) {
+            // Savepoints are released by the commit (MySQL also drops them when DDL commits implicitly)
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                task.operation.execute(connection);
+                applied.add(task);
+            } catch (Exception e) {
+                connection.rollback(savepoint);
+                failed.increment();
+                logger.log(Level.SEVERE, "Database operation failed", e);
+                task.future.completeExceptionally(e);
+            }
+        }
+        
+        connection.commit();
+        transactions.increment();
+        committed.add(applied.size());
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        applied.forEach(task -> task.future.complete(null));
+    }
+    
+    /**
+     * Finish queued writes; the caller closes the data source afterwards
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        if (thread.isAlive()) {
+            logger.warning("Database writer did not finish " + queue.size() + " queued writes before shutdown");
+            thread.interrupt();
+        }
+    }
+    
+    public Stats getStats() {
+        long commits = transactions.sum();
+        return new Stats(
+            queue.size(),
+            committed.sum(),
+            failed.sum(),
+            rejected.sum(),
+            overLimit.sum(),
+            commits,
+            commits > 0 ? (double) committed.sum() / commits : 0.0,
+            largestBatch.get()
+        );
+    }
+    
+    /**
+     * Point-in-time writer metrics
+     */
+    public record Stats(int queued, long committed, long failed, long rejected, long overLimit, long transactions,
+                        double averageBatchSize, long largestBatch) {}
+    
+    private record WriteTask(DatabaseManager.DatabaseOperation operation, CompletableFuture<Void> future) {}
+}
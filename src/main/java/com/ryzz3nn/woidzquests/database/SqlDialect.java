@@ -0,0 +1,119 @@
+package com.ryzz3nn.woidzquests.database;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The SQL that differs between the supported backends.
+ * Everything else the plugin runs is written in the subset shared by SQLite, MySQL/MariaDB and PostgreSQL
+ * (H2 is driven through the MySQL dialect in its MySQL compatibility mode).
+ */
+public enum SqlDialect {
+    
+    SQLITE("INTEGER PRIMARY KEY AUTOINCREMENT"),
+    MYSQL("BIGINT AUTO_INCREMENT PRIMARY KEY"),
+    POSTGRESQL("BIGSERIAL PRIMARY KEY");
+    
+    private final String autoIncrementKey;
+    
+    SqlDialect(String autoIncrementKey) {
+        this.autoIncrementKey = autoIncrementKey;
+    }
+    
+    /**
+     * Column definition for a generated numeric primary key
+     */
+    public String autoIncrementKey() {
+        return autoIncrementKey;
+    }
+    
+    /**
+     * Start an insert-or-update statement for a table
+     */
+    public Upsert upsert(String table) {
+        return new Upsert(this, table);
+    }
+    
+    /**
+     * Builds an insert that updates the existing row when the key already exists.
+     * Parameters are bound keys first, then value columns in the order they were added.
+     */
+    public static final class Upsert {
+        
+        private final SqlDialect dialect;
+        private final String table;
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private final Set<String> additive = new HashSet<>();
+        private final List<String> timestamps = new ArrayList<>();
+        
+        private Upsert(SqlDialect dialect, String table) {
+            this.dialect = dialect;
+            this.table = table;
+        }
+        
+        public Upsert keys(String... columns) {
+            keys.addAll(List.of(columns));
+            return this;
+        }
+        
+        /**
+         * Columns that overwrite the stored value
+         */
+        public Upsert columns(String... columns) {
+            values.addAll(List.of(columns));
+            return this;
+        }
+        
+        /**
+         * Columns whose value is added to the stored value
+         */
+        public Upsert add(String... columns) {
+            values.addAll(List.of(columns));
+            additive.addAll(List.of(columns));
+            return this;
+        }
+        
+        /**
+         * Columns set to CURRENT_TIMESTAMP (no parameter)
+         */
+        public Upsert now(String... columns) {
+            timestamps.addAll(List.of(columns));
+            return this;
+        }
+        
+        public String build() {
+            List<String> columns = new ArrayList<>(keys);
+            columns.addAll(values);
+            columns.addAll(timestamps);
+            
+            List<String> placeholders = new ArrayList<>();
+            for (int i = 0; i < keys.size() + values.size(); i++) {
+                placeholders.add("?");
+            }
+            for (int i = 0; i < timestamps.size(); i++) {
+                placeholders.add("CURRENT_TIMESTAMP");
+            }
+            
+            String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + String.join(", ", placeholders) + ")";
+            
+            List<String> updates = new ArrayList<>();
+            for (String column : values) {
+                String incoming = dialect == MYSQL ? "VALUES(" + column + ")" : "excluded." + column;
+                String stored = dialect == MYSQL ? column : table + "." + column;
+                updates.add(column + " = " + (additive.contains(column) ? stored + " + " + incoming : incoming));
+            }
+            for (String column : timestamps) {
+                updates.add(column + " = CURRENT_TIMESTAMP");
+            }
+            
+            if (dialect == MYSQL) {
+                // MySQL has no DO NOTHING; assigning a key to itself leaves the row untouched
+                return insert + " ON DUPLICATE KEY UPDATE " + (updates.isEmpty() ? keys.get(0) + " = " + keys.get(0) : String.join(", ", updates));
+            }
+            return insert + " ON CONFLICT (" + String.join(", ", keys) + ") " + (updates.isEmpty() ? "DO NOTHING" : "DO UPDATE SET " + String.join(", ", updates));
+        }
+    }
+}
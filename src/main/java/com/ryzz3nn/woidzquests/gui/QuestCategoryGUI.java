@@ -250,7 +250,8 @@ public class QuestCategoryGUI implements InventoryHolder {
         List<String> lore = new ArrayList<>();
         lore.add("");
         lore.add("<!italic><#E64703>┏ <gray><#f79459>" + quest.getDescription());
-        lore.add("<!italic><#E64703>| <gray>Progress: <#f79459>" + quest.getFormattedProgress() + "<gray>/<#f79459>" + quest.getFormattedTarget() + " <gray>(" + quest.getProgressColor() + quest.getProgressPercentage() + "%<gray>)");
+        com.ryzz3nn.woidzquests.models.GlobalQuest.Snapshot snapshot = quest.snapshot();
+        lore.add("<!italic><#E64703>| <gray>Progress: <#f79459>" + snapshot.getFormattedProgress() + "<gray>/<#f79459>" + snapshot.getFormattedTarget() + " <gray>(" + snapshot.getProgressColor() + snapshot.getProgressPercentage() + "%<gray>)");
         
         // Show player contribution
         long playerContribution = quest.getPlayerContribution(player.getUniqueId());
@@ -235,19 +235,22 @@ public class QuestGUIListener implements Listener {
             com.ryzz3nn.woidzquests.models.GlobalQuest quest = globalQuests.get(questIndex);
             
             if (quest.isCompleted() && !quest.hasPlayerClaimed(player.getUniqueId())) {
-                // Attempt to claim the reward
-                if (plugin.getGlobalQuestManager().claimReward(player.getUniqueId(), quest.getId())) {
-                    // Refresh the GUI to show updated status
-                    QuestCategoryGUI globalGUI = new QuestCategoryGUI(plugin, player, QuestCategoryGUI.QuestCategory.GLOBAL);
-                    globalGUI.open();
-                }
+                // Attempt to claim the reward; it is settled with the other servers first
+                plugin.getGlobalQuestManager().claimReward(player.getUniqueId(), quest.getId()).thenAccept(claimed -> {
+                    if (claimed && player.isOnline()) {
+                        // Refresh the GUI to show updated status
+                        QuestCategoryGUI globalGUI = new QuestCategoryGUI(plugin, player, QuestCategoryGUI.QuestCategory.GLOBAL);
+                        globalGUI.open();
+                    }
+                });
             } else if (quest.hasPlayerClaimed(player.getUniqueId())) {
                 player.sendMessage(plugin.parseMessage("<gray>[<gold><bold>!</bold></gold><gray>]<reset> You have already claimed the reward for this quest!"));
             } else {
                 // Show quest progress and contribution
                 long playerContribution = quest.getPlayerContribution(player.getUniqueId());
                 player.sendMessage(plugin.parseMessage("<gray>[<light_purple><bold>◆</bold></light_purple><gray>]<reset> Global Quest: <light_purple>" + quest.getName() + "<reset>"));
-                player.sendMessage(plugin.parseMessage("<gray>Server Progress: <light_purple>" + quest.getFormattedProgress() + "</light_purple><gray>/<light_purple>" + quest.getFormattedTarget() + "</light_purple> <gray>(" + quest.getProgressColor() + quest.getProgressPercentage() + "%<gray>)<reset>"));
+                com.ryzz3nn.woidzquests.models.GlobalQuest.Snapshot snapshot = quest.snapshot();
+                player.sendMessage(plugin.parseMessage("<gray>Server Progress: <light_purple>" + snapshot.getFormattedProgress() + "</light_purple><gray>/<light_purple>" + snapshot.getFormattedTarget() + "</light_purple> <gray>(" + snapshot.getProgressColor() + snapshot.getProgressPercentage() + "%<gray>)<reset>"));
                 if (playerContribution > 0) {
                     player.sendMessage(plugin.parseMessage("<gray>Your Contribution: <gold>" + formatLargeNumber(playerContribution) + "<reset>"));
                 } else {
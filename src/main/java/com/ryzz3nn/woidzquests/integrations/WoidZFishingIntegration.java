@@ -1,6 +1,7 @@
 package com.ryzz3nn.woidzquests.integrations;
 
 import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.models.ProgressContext;
 import com.ryzz3nn.woidzquests.models.Quest;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -9,8 +10,8 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
 
 public class WoidZFishingIntegration implements Listener {
     
@@ -85,36 +86,20 @@ public class WoidZFishingIntegration implements Listener {
             double value = (Double) fishCatchEventClass.getMethod("getValue").invoke(event);
             boolean isUltraRare = (Boolean) fishCatchEventClass.getMethod("isUltraRare").invoke(event);
             
-            // Get catch location using reflection
-            Object catchLocation = fishCatchEventClass.getMethod("getCatchLocation").invoke(event);
-            String biome = ((org.bukkit.Location) catchLocation).getBlock().getBiome().getKey().getKey();
-            String world = ((org.bukkit.Location) catchLocation).getWorld().getName();
-            
-            // Create progress data for quest tracking
-            Map<String, Object> progressData = new HashMap<>();
-            progressData.put("fish_name", fishName);
-            progressData.put("rarity", rarity);
-            progressData.put("tier", tier);
-            progressData.put("length", length);
-            progressData.put("weight", weight);
-            progressData.put("value", value);
-            progressData.put("ultra_rare", isUltraRare);
-            progressData.put("biome", biome);
-            progressData.put("world", world);
-            
-            // Add progress to fishing quests (old system)
-            plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.FISHING, progressData, 1);
+            // Add progress to fishing quests (old system) at the catch location
+            if (plugin.getQuestManager().isTracking(player.getUniqueId(), Quest.QuestType.FISHING)) {
+                Object catchLocation = fishCatchEventClass.getMethod("getCatchLocation").invoke(event);
+                plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.FISHING,
+                    ProgressContext.at((org.bukkit.Location) catchLocation), 1);
+            }
             
             // Add progress to new quest systems
             addFishingProgress(player, fishName, rarity, tier, isUltraRare, value, length);
             
             // Update player statistics
-            plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-                .addStatistic("fish_caught", 1);
-            plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-                .addStatistic("fish_caught_" + fishName.toLowerCase().replace(" ", "_"), 1);
-            plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-                .addStatistic("fish_caught_" + rarity.toLowerCase(), 1);
+            plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "fish_caught", 1);
+            plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "fish_caught_" + fishName.toLowerCase().replace(" ", "_"), 1);
+            plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "fish_caught_" + rarity.toLowerCase(), 1);
             
         } catch (Exception e) {
             // Log error but don't spam console
@@ -125,73 +110,50 @@ public class WoidZFishingIntegration implements Listener {
     private void addFishingProgress(Player player, String fishName, String rarity, int tier, 
                                   boolean isUltraRare, double value, double length) {
         
+        // Every tag this catch counts for, applied as one event so a quest matching several is progressed once
+        Set<String> targets = new HashSet<>();
+        
         // Generic fish catching progress
-        plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-            com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, "ANY_FISH", 1);
-        plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", "ANY_FISH", 1);
-        plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "ANY_FISH", 1L);
+        targets.add("ANY_FISH");
         
         // Specific fish type progress
-        String fishTarget = fishName.toUpperCase().replace(" ", "_");
-        plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-            com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, fishTarget, 1);
-        plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", fishTarget, 1);
-        plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", fishTarget, 1L);
+        targets.add(fishName.toUpperCase().replace(" ", "_"));
         
         // Rarity-based progress
         if (isRareOrAbove(rarity)) {
-            plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-                com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, "RARE_FISH", 1);
-            plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", "RARE_FISH", 1);
-            plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "RARE_FISH", 1L);
+            targets.add("RARE_FISH");
         }
         
         // Ultra rare fish progress
         if (isUltraRare) {
-            plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-                com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, "ULTRA_RARE_FISH", 1);
-            plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", "ULTRA_RARE_FISH", 1);
-            plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "ULTRA_RARE_FISH", 1L);
+            targets.add("ULTRA_RARE_FISH");
         }
         
         // Valuable fish progress (over $100)
         if (value >= 100.0) {
-            plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-                com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, "VALUABLE_FISH", 1);
-            plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", "VALUABLE_FISH", 1);
-            plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "VALUABLE_FISH", 1L);
+            targets.add("VALUABLE_FISH");
         }
         
         // Large fish progress (over 50cm)
         if (length >= 50.0) {
-            plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-                com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, "LARGE_FISH", 1);
-            plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", "LARGE_FISH", 1);
-            plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "LARGE_FISH", 1L);
+            targets.add("LARGE_FISH");
         }
         
-        // Tier-based progress
-        plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-            com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, "TIER_" + tier + "_FISH", 1);
-        plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", "TIER_" + tier + "_FISH", 1);
-        plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "TIER_" + tier + "_FISH", 1L);
-        
-        // Tier 3+ progress for daily quests
+        // Tier-based progress, plus the "tier 3+" and "tier 5+" targets
+        targets.add("TIER_" + tier + "_FISH");
         if (tier >= 3) {
-            plugin.getDailyQuestManager().addProgress(player.getUniqueId(), 
-                com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, "TIER_3_FISH", 1);
+            targets.add("TIER_3_FISH");
         }
-        
-        // Tier 5+ progress for weekly quests
         if (tier >= 5) {
-            plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "FISHING", "TIER_5_FISH", 1);
-            plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "TIER_5_FISH", 1L);
+            targets.add("TIER_5_FISH");
         }
         
-        // Also handle the COD target for existing global quests
+        // Also handle the COD target for existing quests
         if (fishName.equalsIgnoreCase("Cod") || fishName.contains("Cod")) {
-            plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "FISHING", "COD", 1L);
+            targets.add("COD");
         }
+        
+        plugin.getProgressAccumulator().add(player.getUniqueId(), com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.FISHING, targets, 1);
     }
     
     private boolean isRareOrAbove(String rarity) {
@@ -0,0 +1,33 @@
+package com.ryzz3nn.woidzquests.listeners;
+
+import com.ryzz3nn.woidzquests.WoidZQuests;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+public class ChunkListener implements Listener {
+    
+    private final WoidZQuests plugin;
+    
+    public ChunkListener(WoidZQuests plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        plugin.getPlacedBlockManager().loadChunk(event.getChunk());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        plugin.getPlacedBlockManager().unloadChunk(event.getChunk());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        plugin.getPlacedBlockManager().unloadWorld(event.getWorld());
+    }
+}
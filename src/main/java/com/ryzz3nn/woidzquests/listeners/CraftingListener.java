@@ -1,6 +1,7 @@
 package com.ryzz3nn.woidzquests.listeners;
 
 import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.models.ProgressContext;
 import com.ryzz3nn.woidzquests.models.Quest;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -12,9 +13,6 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class CraftingListener implements Listener {
     
     private final WoidZQuests plugin;
@@ -34,64 +32,40 @@ public class CraftingListener implements Listener {
             return;
         }
         
-        // Create progress data
-        Map<String, Object> progressData = new HashMap<>();
-        progressData.put("item", result.getType().name());
-        progressData.put("amount", result.getAmount());
-        
         // Add progress to crafting quests
-        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.CRAFTING, progressData, result.getAmount());
+        if (plugin.getQuestManager().isTracking(player.getUniqueId(), Quest.QuestType.CRAFTING)) {
+            plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.CRAFTING,
+                ProgressContext.ofItem(result.getType(), false), result.getAmount());
+        }
         
         // Update player statistics
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("items_crafted", result.getAmount());
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("items_crafted_" + result.getType().name().toLowerCase(), result.getAmount());
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "items_crafted", result.getAmount());
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "items_crafted_" + result.getType().name().toLowerCase(), result.getAmount());
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onFurnaceExtract(FurnaceExtractEvent event) {
         Player player = event.getPlayer();
         
-        // Create progress data
-        Map<String, Object> progressData = new HashMap<>();
-        progressData.put("item", event.getItemType().name());
-        progressData.put("amount", event.getItemAmount());
-        progressData.put("from_smelting", true); // Mark as coming from smelting
-        
-        // Add progress to smelting quests (old system)
-        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.SMELTING, progressData, event.getItemAmount());
+        // Add progress to smelting quests (old system), marked as coming from smelting
+        if (plugin.getQuestManager().isTracking(player.getUniqueId(), Quest.QuestType.SMELTING)) {
+            plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.SMELTING,
+                ProgressContext.ofItem(event.getItemType(), true), event.getItemAmount());
+        }
         
         // Add progress to smelting quests (new system - daily/weekly/global)
         String materialTarget = event.getItemType().name();
-        plugin.getDailyQuestManager().addProgress(player.getUniqueId(), com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.SMELTING, materialTarget, event.getItemAmount());
-        plugin.getWeeklyQuestManager().addProgress(player.getUniqueId(), "SMELTING", materialTarget, event.getItemAmount());
-        plugin.getGlobalQuestManager().addProgress(player.getUniqueId(), "SMELTING", materialTarget, (long) event.getItemAmount());
+        plugin.getProgressAccumulator().add(player.getUniqueId(), com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.SMELTING, materialTarget, event.getItemAmount());
         
         // Update player statistics
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("items_smelted", event.getItemAmount());
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("items_smelted_" + event.getItemType().name().toLowerCase(), event.getItemAmount());
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "items_smelted", event.getItemAmount());
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "items_smelted_" + event.getItemType().name().toLowerCase(), event.getItemAmount());
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) {
-            return;
-        }
-        
-        ItemStack result = event.getCurrentItem();
-        if (result == null) {
-            return;
-        }
-        
-        // Handle different inventory types
+        // Handle different inventory types; every other click returns before doing any work
         InventoryType inventoryType = event.getInventory().getType();
-        Map<String, Object> progressData = new HashMap<>();
-        progressData.put("item", result.getType().name());
-        progressData.put("amount", result.getAmount());
-        
         Quest.QuestType questType = null;
         String statPrefix = "";
         
@@ -114,15 +88,23 @@ public class CraftingListener implements Listener {
             }
         }
         
-        if (questType != null) {
-            // Add progress to specific quest type
-            plugin.getQuestManager().addProgress(player.getUniqueId(), questType, progressData, result.getAmount());
-            
-            // Update player statistics
-            plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-                .addStatistic(statPrefix + "items", result.getAmount());
-            plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-                .addStatistic(statPrefix + result.getType().name().toLowerCase(), result.getAmount());
+        if (questType == null || !(event.getWhoClicked() instanceof Player player)) {
+            return;
+        }
+        
+        ItemStack result = event.getCurrentItem();
+        if (result == null) {
+            return;
+        }
+        
+        // Add progress to specific quest type
+        if (plugin.getQuestManager().isTracking(player.getUniqueId(), questType)) {
+            plugin.getQuestManager().addProgress(player.getUniqueId(), questType,
+                ProgressContext.ofItem(result.getType(), false), result.getAmount());
         }
+        
+        // Update player statistics
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), statPrefix + "items", result.getAmount());
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), statPrefix + result.getType().name().toLowerCase(), result.getAmount());
     }
 }
@@ -1,6 +1,7 @@
 package com.ryzz3nn.woidzquests.listeners;
 
 import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.models.ProgressContext;
 import com.ryzz3nn.woidzquests.models.Quest;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -8,9 +9,6 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerEvent;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class JobsListener implements Listener {
     
     private final WoidZQuests plugin;
@@ -24,52 +22,31 @@ public class JobsListener implements Listener {
     
     // Placeholder for Jobs XP gain event
     public void onJobsXPGain(Player player, String jobName, double xp) {
-        // Create progress data
-        Map<String, Object> progressData = new HashMap<>();
-        progressData.put("job", jobName);
-        progressData.put("xp", xp);
-        
         // Add progress to job XP quests
-        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.JOBS_XP, progressData, (int) xp);
+        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.JOBS_XP, ProgressContext.NONE, (int) xp);
         
         // Update player statistics
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("job_xp_gained", (int) xp);
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("job_xp_" + jobName.toLowerCase(), (int) xp);
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "job_xp_gained", (int) xp);
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "job_xp_" + jobName.toLowerCase(), (int) xp);
     }
     
     // Placeholder for Jobs money earn event
     public void onJobsMoneyEarn(Player player, String jobName, double money) {
-        // Create progress data
-        Map<String, Object> progressData = new HashMap<>();
-        progressData.put("job", jobName);
-        progressData.put("money", money);
-        
         // Add progress to job money quests
-        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.JOBS_MONEY, progressData, (int) money);
+        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.JOBS_MONEY, ProgressContext.NONE, (int) money);
         
         // Update player statistics
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("job_money_earned", (int) money);
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("job_money_" + jobName.toLowerCase(), (int) money);
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "job_money_earned", (int) money);
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "job_money_" + jobName.toLowerCase(), (int) money);
     }
     
     // Placeholder for Jobs level up event
     public void onJobsLevelUp(Player player, String jobName, int newLevel) {
-        // Create progress data
-        Map<String, Object> progressData = new HashMap<>();
-        progressData.put("job", jobName);
-        progressData.put("level", newLevel);
-        
         // Add progress to job level quests
-        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.JOBS_LEVEL, progressData, 1);
+        plugin.getQuestManager().addProgress(player.getUniqueId(), Quest.QuestType.JOBS_LEVEL, ProgressContext.NONE, 1);
         
         // Update player statistics
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("job_levels_gained", 1);
-        plugin.getPlayerDataManager().getPlayerData(player.getUniqueId())
-            .addStatistic("job_level_" + jobName.toLowerCase(), newLevel);
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "job_levels_gained", 1);
+        plugin.getProgressAccumulator().addStatistic(player.getUniqueId(), "job_level_" + jobName.toLowerCase(), newLevel);
     }
 }
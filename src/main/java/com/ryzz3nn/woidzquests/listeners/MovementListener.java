@@ -1,6 +1,7 @@
 package com.ryzz3nn.woidzquests.listeners;
 
 import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.models.ProgressContext;
 import com.ryzz3nn.woidzquests.models.Quest;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -10,7 +11,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -53,18 +53,13 @@ public class MovementListener implements Listener {
         if (lastLocation != null && lastLocation.getWorld().equals(to.getWorld())) {
             double distance = lastLocation.distance(to);
             
-            // Create progress data for distance quests
-            Map<String, Object> progressData = new HashMap<>();
-            progressData.put("distance", distance);
-            progressData.put("world", to.getWorld().getName());
-            progressData.put("biome", to.getBlock().getBiome().getKey().getKey());
-            
             // Add progress to exploration quests
-            plugin.getQuestManager().addProgress(playerUuid, Quest.QuestType.EXPLORATION, progressData, (int) distance);
+            if (plugin.getQuestManager().isTracking(playerUuid, Quest.QuestType.EXPLORATION)) {
+                plugin.getQuestManager().addProgress(playerUuid, Quest.QuestType.EXPLORATION, ProgressContext.at(to), (int) distance);
+            }
             
             // Update player statistics
-            plugin.getPlayerDataManager().getPlayerData(playerUuid)
-                .addStatistic("distance_traveled", (int) distance);
+            plugin.getProgressAccumulator().addStatistic(playerUuid, "distance_traveled", (int) distance);
         }
         
         lastLocations.put(playerUuid, to.clone());
@@ -76,19 +71,15 @@ public class MovementListener implements Listener {
         if (lastBiome == null || !lastBiome.equals(currentBiome)) {
             lastBiomes.put(playerUuid, currentBiome);
             
-            // Create progress data for biome discovery
-            Map<String, Object> progressData = new HashMap<>();
-            progressData.put("biome", currentBiome);
-            progressData.put("world", to.getWorld().getName());
-            
             // Add progress to biome discovery quests
-            plugin.getQuestManager().addProgress(playerUuid, Quest.QuestType.EXPLORATION, progressData, 1);
+            if (plugin.getQuestManager().isTracking(playerUuid, Quest.QuestType.EXPLORATION)) {
+                plugin.getQuestManager().addProgress(playerUuid, Quest.QuestType.EXPLORATION,
+                    new ProgressContext(null, null, to.getWorld().getName(), currentBiome, ProgressContext.NO_Y, false), 1);
+            }
             
             // Update player statistics
-            plugin.getPlayerDataManager().getPlayerData(playerUuid)
-                .addStatistic("biomes_discovered", 1);
-            plugin.getPlayerDataManager().getPlayerData(playerUuid)
-                .addStatistic("biome_" + currentBiome.toLowerCase(), 1);
+            plugin.getProgressAccumulator().addStatistic(playerUuid, "biomes_discovered", 1);
+            plugin.getProgressAccumulator().addStatistic(playerUuid, "biome_" + currentBiome.toLowerCase(), 1);
         }
     }
     
@@ -103,19 +94,14 @@ public class MovementListener implements Listener {
         // Reset biome tracking for new world
         lastBiomes.put(playerUuid, player.getLocation().getBlock().getBiome().getKey().getKey());
         
-        // Create progress data for world change
-        Map<String, Object> progressData = new HashMap<>();
-        progressData.put("world", player.getWorld().getName());
-        progressData.put("dimension", player.getWorld().getEnvironment().name());
-        
         // Add progress to exploration quests
-        plugin.getQuestManager().addProgress(playerUuid, Quest.QuestType.EXPLORATION, progressData, 1);
+        if (plugin.getQuestManager().isTracking(playerUuid, Quest.QuestType.EXPLORATION)) {
+            plugin.getQuestManager().addProgress(playerUuid, Quest.QuestType.EXPLORATION, ProgressContext.inWorld(player.getWorld()), 1);
+        }
         
         // Update player statistics
-        plugin.getPlayerDataManager().getPlayerData(playerUuid)
-            .addStatistic("worlds_visited", 1);
-        plugin.getPlayerDataManager().getPlayerData(playerUuid)
-            .addStatistic("world_" + player.getWorld().getName().toLowerCase(), 1);
+        plugin.getProgressAccumulator().addStatistic(playerUuid, "worlds_visited", 1);
+        plugin.getProgressAccumulator().addStatistic(playerUuid, "world_" + player.getWorld().getName().toLowerCase(), 1);
     }
     
     private boolean hasMovedToNewBlock(Location from, Location to) {
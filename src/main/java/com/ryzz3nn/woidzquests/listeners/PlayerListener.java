@@ -6,7 +6,9 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.time.LocalDateTime;
@@ -19,34 +21,49 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // Runs off the main thread, so all database reads for the player happen here
+        plugin.getPlayerSessionManager().preload(event.getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getPlayerSessionManager().discard(event.getPlayer().getUniqueId());
+        }
+    }
+    
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
+        // Attach the session preloaded during login (player data and quests)
+        plugin.getPlayerSessionManager().open(player.getUniqueId());
+        
         // Load or create player data
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
         playerData.setUsername(player.getName());
         playerData.setLastSeen(LocalDateTime.now());
         
-        // Check for daily/weekly resets
-        if (playerData.needsDailyReset()) {
-            playerData.resetDailyRerolls(plugin.getConfigManager().getDailyQuestRerolls());
-        }
-        
-        if (playerData.needsWeeklyReset()) {
-            playerData.resetWeeklyRerolls(plugin.getConfigManager().getInt("quests.weekly-rerolls", 1));
-        }
+        // Quest progress is applied off the main thread, which never generates quests, so do it here.
+        // Rolling a set over also refills that period's rerolls.
+        plugin.getDailyQuestManager().getPlayerDailyQuests(player.getUniqueId());
+        plugin.getWeeklyQuestManager().getPlayerWeeklyQuests(player.getUniqueId());
         
         // Save player data
         plugin.getPlayerDataManager().savePlayerData(playerData);
         
+        // Tell the other servers this one now holds the player's data
+        plugin.getHandoffManager().claim(player.getUniqueId(), playerData.getVersion());
+        
         // Start tracking playtime for TIMED/SURVIVAL quests
         plugin.getPlaytimeTracker().startTracking(player.getUniqueId());
         
-        // Load player's quests from database
-        plugin.getDailyQuestManager().loadDailyQuests(player.getUniqueId());
-        plugin.getWeeklyQuestManager().loadWeeklyQuests(player.getUniqueId());
-        
         // Auto-assign quests if enabled
         if (plugin.getConfigManager().getBoolean("quests.auto-assign", true)) {
             // TODO: Auto-assign quests
@@ -57,19 +74,14 @@ public class PlayerListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         
-        // Stop tracking playtime
-        plugin.getPlaytimeTracker().stopTracking(player.getUniqueId());
-        
         // Update last seen time
-        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
-        playerData.setLastSeen(LocalDateTime.now());
-        
-        // Save player data
-        plugin.getPlayerDataManager().savePlayerData(playerData);
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerDataCache().get(player.getUniqueId());
+        if (playerData != null) {
+            playerData.setLastSeen(LocalDateTime.now());
+        }
         
-        // Remove from cache after a delay to allow for quick reconnects
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            plugin.getPlayerDataManager().removePlayerData(player.getUniqueId());
-        }, 20 * 60); // 1 minute delay
+        // Stop tracking playtime; once the quest worker has applied the player's queued progress, save
+        // player data and quest progress, then evict them from every manager when committed
+        plugin.getPlayerSessionManager().close(player.getUniqueId());
     }
 }
@@ -0,0 +1,123 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Weighted random choice of an index using Vose's alias method.
+ * Built once per template pool in O(n); every draw then costs one random int, one random double
+ * and two array reads regardless of the pool size.
+ */
+public class AliasSampler {
+    
+    // Rejected draws tolerated before falling back to a scan of the indices still allowed
+    private static final int MAX_REJECTIONS = 32;
+    
+    private final int[] weights;
+    private final double[] probability;
+    private final int[] alias;
+    
+    /**
+     * @param weights non-negative weight per index; if they are all zero every index is equally likely
+     */
+    public AliasSampler(int[] weights) {
+        int size = weights.length;
+        this.weights = weights.clone();
+        this.probability = new double[size];
+        this.alias = new int[size];
+        
+        long total = 0;
+        for (int weight : weights) {
+            total += Math.max(0, weight);
+        }
+        
+        // Scale so the average column holds exactly 1, then pair each short column with a tall one
+        double[] scaled = new double[size];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            scaled[i] = total > 0 ? (double) Math.max(0, weights[i]) * size / total : 1.0;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        
+        // Whatever is left is 1 up to rounding error
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1.0;
+        }
+    }
+    
+    public int size() {
+        return probability.length;
+    }
+    
+    /**
+     * Draw an index with probability proportional to its weight
+     */
+    public int next(Random random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+    
+    /**
+     * Draw an index that is not in the excluded set, with probability proportional to its weight
+     * among the indices still allowed
+     * @return -1 if every index is excluded
+     */
+    public int next(Random random, BitSet excluded) {
+        if (excluded.cardinality() >= probability.length) {
+            return -1;
+        }
+        
+        // A player excludes a handful of a large pool, so rejection almost always succeeds at once
+        for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+            int index = next(random);
+            if (!excluded.get(index)) {
+                return index;
+            }
+        }
+        return scan(random, excluded);
+    }
+    
+    /**
+     * Linear fallback over the allowed indices, for pools that are mostly excluded
+     */
+    private int scan(Random random, BitSet excluded) {
+        long total = 0;
+        for (int i = excluded.nextClearBit(0); i < weights.length; i = excluded.nextClearBit(i + 1)) {
+            total += Math.max(0, weights[i]);
+        }
+        
+        if (total <= 0) {
+            // Only zero-weight indices remain: pick one of them uniformly
+            int skip = random.nextInt(weights.length - excluded.cardinality());
+            int index = excluded.nextClearBit(0);
+            for (int i = 0; i < skip; i++) {
+                index = excluded.nextClearBit(index + 1);
+            }
+            return index;
+        }
+        
+        long value = random.nextLong(total);
+        for (int i = excluded.nextClearBit(0); i < weights.length; i = excluded.nextClearBit(i + 1)) {
+            value -= Math.max(0, weights[i]);
+            if (value < 0) {
+                return i;
+            }
+        }
+        return excluded.nextClearBit(0); // Not reached
+    }
+}
@@ -6,116 +6,192 @@ import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Shows quest progress and completions in one boss bar per player. The bar is created once and its
+ * title, progress and color are changed in place only when what it shows changes, so a player grinding
+ * quests costs no new bars, no hide/show packets between updates and no re-parsed titles.
+ * Hide deadlines sit in a timing wheel swept by a single repeating task instead of a task per update.
+ */
 public class BossBarManager {
     
+    // Hide times are rounded up to whole sweeps
+    private static final long SWEEP_INTERVAL_TICKS = 10L;
+    
+    // 32 slots of 10 ticks span 16 seconds, longer than any hide delay
+    private static final int WHEEL_SLOTS = 32;
+    
+    private static final long PROGRESS_HIDE_TICKS = 100L; // 5 seconds
+    private static final long COMPLETED_HIDE_TICKS = 160L; // 8 seconds
+    
     private final WoidZQuests plugin;
-    private final Map<UUID, BossBar> activeBossBars;
-    private final Map<UUID, BukkitRunnable> hideTaskMap;
+    
+    // Main thread only
+    private final Map<UUID, Display> displays = new HashMap<>();
+    private final List<Set<UUID>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    private long sweeps; // Sweeps run so far, the wheel's clock
+    private final BukkitTask sweeper;
+    
+    private final Map<UUID, DeferredUpdate> deferredUpdates = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
     
     public BossBarManager(WoidZQuests plugin) {
         this.plugin = plugin;
-        this.activeBossBars = new HashMap<>();
-        this.hideTaskMap = new HashMap<>();
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new HashSet<>());
+        }
+        this.sweeper = Bukkit.getScheduler().runTaskTimer(plugin, this::sweep, SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
     }
     
     public void showQuestProgress(Player player, DailyQuest quest) {
-        UUID playerId = player.getUniqueId();
-        
-        // Cancel any existing hide task
-        BukkitRunnable existingTask = hideTaskMap.get(playerId);
-        if (existingTask != null) {
-            existingTask.cancel();
-        }
-        
-        // Remove existing bossbar if any
-        BossBar existingBar = activeBossBars.get(playerId);
-        if (existingBar != null) {
-            player.hideBossBar(existingBar);
+        if (defer(player, false, () -> showQuestProgress(player, quest))) {
+            return;
         }
         
-        // Create new bossbar
         float progress = Math.min(1.0f, (float) quest.getCurrentProgress() / quest.getTargetAmount());
-        BossBar.Color color = getColorForProgress(quest.getProgressPercentage());
-        
-        Component title = plugin.parseMessage(
-            "<gray>" + quest.getName() + " <gray>(<#f79459>" + 
+        String title = "<gray>" + quest.getName() + " <gray>(<#f79459>" +
             quest.getCurrentProgress() + "<gray>/<#f79459>" + quest.getTargetAmount() + "<gray>) " +
-            quest.getProgressColor() + quest.getProgressPercentage() + "%"
-        );
+            quest.getProgressColor() + quest.getProgressPercentage() + "%";
         
-        BossBar bossBar = BossBar.bossBar(title, progress, color, BossBar.Overlay.PROGRESS);
-        
-        // Show bossbar to player
-        player.showBossBar(bossBar);
-        activeBossBars.put(playerId, bossBar);
-        
-        // Schedule hide task (hide after 5 seconds)
-        BukkitRunnable hideTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                hideBossBar(player);
-            }
-        };
-        hideTask.runTaskLater(plugin, 100L); // 5 seconds
-        hideTaskMap.put(playerId, hideTask);
+        show(player, title, progress, getColorForProgress(quest.getProgressPercentage()), PROGRESS_HIDE_TICKS);
     }
     
     public void showQuestCompleted(Player player, DailyQuest quest) {
-        UUID playerId = player.getUniqueId();
-        
-        // Cancel any existing hide task
-        BukkitRunnable existingTask = hideTaskMap.get(playerId);
-        if (existingTask != null) {
-            existingTask.cancel();
+        if (defer(player, true, () -> showQuestCompleted(player, quest))) {
+            return;
         }
         
-        // Remove existing bossbar if any
-        BossBar existingBar = activeBossBars.get(playerId);
-        if (existingBar != null) {
-            player.hideBossBar(existingBar);
+        String title = "<green><bold>✓ QUEST COMPLETED! <gray>" + quest.getName() + " <gray>- <yellow>Use /quests to claim!";
+        show(player, title, 1.0f, BossBar.Color.GREEN, COMPLETED_HIDE_TICKS);
+    }
+    
+    private void show(Player player, String title, float progress, BossBar.Color color, long hideAfterTicks) {
+        // A deferred update can arrive after the player quit; a bar shown then would be marked visible on rejoin
+        if (!player.isOnline()) {
+            return;
         }
         
-        // Create completion bossbar
-        Component title = plugin.parseMessage(
-            "<green><bold>✓ QUEST COMPLETED! <gray>" + quest.getName() + " <gray>- <yellow>Use /quests to claim!"
-        );
+        UUID playerId = player.getUniqueId();
+        Display display = displays.computeIfAbsent(playerId, k -> new Display());
+        BossBar bossBar = display.bossBar;
+        
+        // Only a changed title is parsed again
+        if (!title.equals(display.title)) {
+            display.title = title;
+            bossBar.name(plugin.parseMessage(title));
+        }
+        if (bossBar.progress() != progress) {
+            bossBar.progress(progress);
+        }
+        if (bossBar.color() != color) {
+            bossBar.color(color);
+        }
         
-        BossBar bossBar = BossBar.bossBar(title, 1.0f, BossBar.Color.GREEN, BossBar.Overlay.PROGRESS);
+        if (!display.visible) {
+            player.showBossBar(bossBar);
+            display.visible = true;
+        }
+        scheduleHide(playerId, display, hideAfterTicks);
+    }
+    
+    private void scheduleHide(UUID playerId, Display display, long delayTicks) {
+        unscheduleHide(playerId, display);
+        long delaySweeps = (delayTicks + SWEEP_INTERVAL_TICKS - 1) / SWEEP_INTERVAL_TICKS;
+        display.hideAt = sweeps + Math.max(1, Math.min(delaySweeps, WHEEL_SLOTS - 1));
+        wheel.get(slot(display.hideAt)).add(playerId);
+    }
+    
+    private void unscheduleHide(UUID playerId, Display display) {
+        if (display.hideAt >= 0) {
+            wheel.get(slot(display.hideAt)).remove(playerId);
+            display.hideAt = -1;
+        }
+    }
+    
+    private static int slot(long sweep) {
+        return (int) (sweep % WHEEL_SLOTS);
+    }
+    
+    /**
+     * Hide every bar whose deadline is this sweep. No deadline is further away than the wheel spans,
+     * so everything in the current slot is due.
+     */
+    private void sweep() {
+        sweeps++;
+        Set<UUID> due = wheel.get(slot(sweeps));
+        if (due.isEmpty()) {
+            return;
+        }
         
-        // Show bossbar to player
-        player.showBossBar(bossBar);
-        activeBossBars.put(playerId, bossBar);
+        List<UUID> playerIds = new ArrayList<>(due);
+        due.clear();
+        for (UUID playerId : playerIds) {
+            Display display = displays.get(playerId);
+            if (display == null) {
+                continue;
+            }
+            display.hideAt = -1;
+            
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null) {
+                displays.remove(playerId);
+            } else {
+                hide(player, display);
+            }
+        }
+    }
+    
+    /**
+     * Queue an update raised off the main thread (quest worker) for the next tick.
+     * Only the last update per player is kept, and a completion is not replaced by progress.
+     */
+    private boolean defer(Player player, boolean completion, Runnable show) {
+        if (Bukkit.isPrimaryThread()) {
+            return false;
+        }
         
-        // Schedule hide task (hide after 8 seconds for completion)
-        BukkitRunnable hideTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                hideBossBar(player);
+        deferredUpdates.merge(player.getUniqueId(), new DeferredUpdate(completion, show),
+            (current, next) -> current.completion() && !next.completion() ? current : next);
+        if (flushScheduled.compareAndSet(false, true) && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, this::showDeferredUpdates);
+        }
+        return true;
+    }
+    
+    private void showDeferredUpdates() {
+        flushScheduled.set(false);
+        for (UUID playerId : deferredUpdates.keySet()) {
+            DeferredUpdate update = deferredUpdates.remove(playerId);
+            if (update != null) {
+                update.show().run();
             }
-        };
-        hideTask.runTaskLater(plugin, 160L); // 8 seconds
-        hideTaskMap.put(playerId, hideTask);
+        }
     }
     
     public void hideBossBar(Player player) {
-        UUID playerId = player.getUniqueId();
-        
-        // Cancel hide task
-        BukkitRunnable hideTask = hideTaskMap.remove(playerId);
-        if (hideTask != null) {
-            hideTask.cancel();
+        Display display = displays.get(player.getUniqueId());
+        if (display != null) {
+            unscheduleHide(player.getUniqueId(), display);
+            hide(player, display);
         }
-        
-        // Hide bossbar
-        BossBar bossBar = activeBossBars.remove(playerId);
-        if (bossBar != null) {
-            player.hideBossBar(bossBar);
+    }
+    
+    private void hide(Player player, Display display) {
+        if (display.visible) {
+            player.hideBossBar(display.bossBar);
+            display.visible = false;
         }
     }
     
@@ -123,6 +199,17 @@ public class BossBarManager {
         hideBossBar(player);
     }
     
+    /**
+     * Forget a player's bar once they have left (quit and session eviction), so a rejoin starts hidden
+     */
+    public void unloadPlayer(UUID playerId) {
+        deferredUpdates.remove(playerId);
+        Display display = displays.remove(playerId);
+        if (display != null) {
+            unscheduleHide(playerId, display);
+        }
+    }
+    
     private BossBar.Color getColorForProgress(int percentage) {
         if (percentage >= 100) return BossBar.Color.GREEN;
         if (percentage >= 75) return BossBar.Color.BLUE;
@@ -132,21 +219,28 @@ public class BossBarManager {
     }
     
     public void cleanup() {
-        // Cancel all hide tasks
-        for (BukkitRunnable task : hideTaskMap.values()) {
-            if (task != null) {
-                task.cancel();
-            }
-        }
-        hideTaskMap.clear();
+        sweeper.cancel();
+        wheel.forEach(Set::clear);
         
         // Hide all boss bars
-        for (Map.Entry<UUID, BossBar> entry : activeBossBars.entrySet()) {
+        for (Map.Entry<UUID, Display> entry : displays.entrySet()) {
             Player player = Bukkit.getPlayer(entry.getKey());
             if (player != null && player.isOnline()) {
-                player.hideBossBar(entry.getValue());
+                hide(player, entry.getValue());
             }
         }
-        activeBossBars.clear();
+        displays.clear();
     }
+    
+    /**
+     * A player's long-lived bar and what it currently shows
+     */
+    private static final class Display {
+        private final BossBar bossBar = BossBar.bossBar(Component.empty(), 0.0f, BossBar.Color.RED, BossBar.Overlay.PROGRESS);
+        private String title; // MiniMessage the name was parsed from
+        private boolean visible;
+        private long hideAt = -1; // Sweep to hide at, -1 if not scheduled
+    }
+    
+    private record DeferredUpdate(boolean completion, Runnable show) {}
 }
@@ -0,0 +1,169 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import java.util.Arrays;
+
+/**
+ * Player-placed block positions inside one chunk, mapped to the time they were placed.
+ * Positions are packed into a single int (y, then in-chunk z and x) and kept in an
+ * open-addressing table, so a lookup is a couple of array reads with no boxing.
+ */
+public class ChunkPlacedBlocks {
+    
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private int[] keys;
+    private long[] placedTimes;
+    private int size;
+    
+    public ChunkPlacedBlocks() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.placedTimes = new long[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+    }
+    
+    /**
+     * Pack block coordinates into an in-chunk key (x and z only keep their low 4 bits)
+     */
+    public static int pack(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+    
+    /**
+     * Get the placement time for a position
+     * @return 0 if the position is not tracked
+     */
+    public long get(int key) {
+        int slot = findSlot(key);
+        return keys[slot] == key ? placedTimes[slot] : 0L;
+    }
+    
+    /**
+     * Track a position, replacing any existing placement time
+     */
+    public void put(int key, long placedAt) {
+        int slot = findSlot(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            size++;
+        }
+        placedTimes[slot] = placedAt;
+        
+        if (size * 4 >= keys.length * 3) {
+            resize(keys.length * 2);
+        }
+    }
+    
+    /**
+     * Track a position only if nothing is recorded for it yet
+     */
+    public void putIfAbsent(int key, long placedAt) {
+        if (keys[findSlot(key)] != key) {
+            put(key, placedAt);
+        }
+    }
+    
+    public void remove(int key) {
+        int slot = findSlot(key);
+        if (keys[slot] != key) {
+            return;
+        }
+        
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                placedTimes[hole] = placedTimes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+    
+    /**
+     * Drop every position placed before the cutoff
+     * @return how many positions were removed
+     */
+    public int removeOlderThan(long cutoff) {
+        int removed = 0;
+        int[] oldKeys = keys;
+        long[] oldTimes = placedTimes;
+        
+        keys = new int[oldKeys.length];
+        placedTimes = new long[oldKeys.length];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            if (oldTimes[i] < cutoff) {
+                removed++;
+            } else {
+                put(oldKeys[i], oldTimes[i]);
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * Visit every tracked position
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], placedTimes[i]);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldTimes = placedTimes;
+        
+        keys = new int[capacity];
+        placedTimes = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldTimes[i]);
+            }
+        }
+    }
+    
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long placedAt);
+    }
+}
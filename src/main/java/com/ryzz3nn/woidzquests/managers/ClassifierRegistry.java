@@ -0,0 +1,121 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import com.ryzz3nn.woidzquests.WoidZQuests;
+import org.bukkit.Bukkit;
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Material categories that listeners route events by (ores, logs, crops, ...).
+ * Every category is built once into an EnumSet from Bukkit tags, a built-in list and the
+ * "classifiers" section of config.yml, so classifying an event is a single bit test
+ * instead of string matching on the enum name.
+ */
+public class ClassifierRegistry {
+    
+    public enum MaterialClass {
+        ORE,
+        STONE,  // Natural stone only; bricks, lamps and other crafted blocks are not mining targets
+        WOOD,
+        PLANKS,
+        CROP
+    }
+    
+    private final WoidZQuests plugin;
+    
+    // Replaced as a whole on reload; listeners read it on the main thread
+    private volatile Map<MaterialClass, Set<Material>> materials = new EnumMap<>(MaterialClass.class);
+    
+    public ClassifierRegistry(WoidZQuests plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    public void reload() {
+        Map<MaterialClass, Set<Material>> materials = new EnumMap<>(MaterialClass.class);
+        for (MaterialClass materialClass : MaterialClass.values()) {
+            Set<Material> set = EnumSet.noneOf(Material.class);
+            addBuiltIn(materialClass, set);
+            addConfigured(set, Material.class, Tag.REGISTRY_BLOCKS, materialClass.name());
+            materials.put(materialClass, set);
+        }
+        
+        this.materials = materials;
+    }
+    
+    public boolean is(MaterialClass materialClass, Material material) {
+        return materials.get(materialClass).contains(material);
+    }
+
+    
+    private void addBuiltIn(MaterialClass materialClass, Set<Material> set) {
+        switch (materialClass) {
+            case ORE -> {
+                for (Material material : Material.values()) {
+                    if (!material.name().startsWith("LEGACY_") && material.name().endsWith("_ORE")) {
+                        set.add(material);
+                    }
+                }
+                set.add(Material.ANCIENT_DEBRIS);
+            }
+            case STONE -> {
+                set.addAll(Tag.BASE_STONE_OVERWORLD.getValues());
+                set.addAll(Tag.BASE_STONE_NETHER.getValues());
+                addNames(set, Material.class, "COBBLESTONE", "MOSSY_COBBLESTONE", "COBBLED_DEEPSLATE", "CALCITE",
+                    "DRIPSTONE_BLOCK", "SMOOTH_BASALT", "END_STONE", "SANDSTONE", "RED_SANDSTONE");
+            }
+            case WOOD -> set.addAll(Tag.LOGS.getValues());
+            case PLANKS -> set.addAll(Tag.PLANKS.getValues());
+            case CROP -> addNames(set, Material.class, "WHEAT", "CARROTS", "POTATOES", "BEETROOTS", "NETHER_WART",
+                "COCOA", "SWEET_BERRY_BUSH", "CAVE_VINES", "CAVE_VINES_PLANT");
+        }
+    }
+    
+    /**
+     * Built-in names missing from this server version are skipped silently
+     */
+    private static <T extends Enum<T>> void addNames(Set<T> set, Class<T> type, String... names) {
+        for (String name : names) {
+            try {
+                set.add(Enum.valueOf(type, name));
+            } catch (IllegalArgumentException ignored) {
+                // Renamed or not yet added in this version
+            }
+        }
+    }
+    
+    /**
+     * Adds classifiers.&lt;class&gt; entries: enum names, or tags written as "#minecraft:logs"
+     */
+    private <T extends Enum<T> & Keyed> void addConfigured(Set<T> set, Class<T> type, String registry, String className) {
+        String path = "classifiers." + className.toLowerCase(Locale.ROOT);
+        List<String> entries = plugin.getConfigManager().getStringList(path);
+        
+        for (String entry : entries) {
+            if (entry.startsWith("#")) {
+                NamespacedKey key = NamespacedKey.fromString(entry.substring(1).toLowerCase(Locale.ROOT));
+                Tag<T> tag = key == null ? null : Bukkit.getTag(registry, key, type);
+                if (tag == null) {
+                    plugin.getLogger().warning("Unknown tag in " + path + ": " + entry);
+                    continue;
+                }
+                set.addAll(tag.getValues());
+            } else {
+                try {
+                    set.add(Enum.valueOf(type, entry.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Unknown " + type.getSimpleName() + " in " + path + ": " + entry);
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.ryzz3nn.woidzquests.managers;
 
 import com.ryzz3nn.woidzquests.WoidZQuests;
 import com.ryzz3nn.woidzquests.models.DailyQuest;
+import com.ryzz3nn.woidzquests.models.DailyQuestTemplate;
+import com.ryzz3nn.woidzquests.models.QuestRequirements;
+import com.google.gson.Gson;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
@@ -11,9 +14,10 @@ import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
-import java.time.LocalDateTime;
+import java.sql.Connection;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.sql.SQLException;
 
@@ -21,17 +25,25 @@ public class DailyQuestManager {
     
     private final WoidZQuests plugin;
     private final Map<UUID, List<DailyQuest>> playerDailyQuests;
+    private final Map<UUID, QuestProgressIndex<DailyQuest>> playerDailyIndexes;
     private final List<DailyQuestTemplate> questTemplates;
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingRollovers = ConcurrentHashMap.newKeySet();
+    private final Gson gson = new Gson();
     private FileConfiguration dailyQuestsConfig;
+    private final Map<String, Integer> templateIndexes = new HashMap<>(); // Template id -> position in questTemplates
+    private AliasSampler templateSampler; // Weighted draws over questTemplates, rebuilt with it
+    private long templatePoolVersion; // Seed key: editing the templates changes every untouched set
     
     public DailyQuestManager(WoidZQuests plugin) {
         this.plugin = plugin;
-        this.playerDailyQuests = new HashMap<>();
+        this.playerDailyQuests = new ConcurrentHashMap<>(); // Progress is applied on the quest worker
+        this.playerDailyIndexes = new ConcurrentHashMap<>();
         this.questTemplates = new ArrayList<>();
         
         loadDailyQuestsConfig();
         initializeQuestTemplates();
-        startDailyResetScheduler();
+        startProgressFlusher();
     }
     
     private void loadDailyQuestsConfig() {
@@ -83,14 +95,10 @@ public class DailyQuestManager {
                 Map<String, Object> requirements = new HashMap<>();
                 ConfigurationSection reqSection = questSection.getConfigurationSection("requirements");
                 if (reqSection != null) {
-                    if (reqSection.contains("materials")) {
-                        requirements.put("materials", reqSection.getStringList("materials"));
-                    }
-                    if (reqSection.contains("worlds")) {
-                        requirements.put("worlds", reqSection.getStringList("worlds"));
-                    }
-                    if (reqSection.contains("biomes")) {
-                        requirements.put("biomes", reqSection.getStringList("biomes"));
+                    for (String key : List.of("materials", "mob_types", "items", "worlds", "biomes")) {
+                        if (reqSection.contains(key)) {
+                            requirements.put(key, reqSection.getStringList(key));
+                        }
                     }
                     if (reqSection.contains("y_min")) {
                         requirements.put("y_min", reqSection.getInt("y_min"));
@@ -98,6 +106,9 @@ public class DailyQuestManager {
                     if (reqSection.contains("y_max")) {
                         requirements.put("y_max", reqSection.getInt("y_max"));
                     }
+                    if (reqSection.contains("from_smelting")) {
+                        requirements.put("from_smelting", reqSection.getBoolean("from_smelting"));
+                    }
                 }
                 
                 // Load rewards
@@ -180,7 +191,7 @@ public class DailyQuestManager {
                 DailyQuestTemplate template = new DailyQuestTemplate(
                     questId, name, description, questType, displayMaterial, materialTarget,
                     targetMin, targetMax, moneyMin, moneyMax, expMin, expMax, 
-                    itemRewards, commandRewards, weight, requirements
+                    parseItemRewards(itemRewards), commandRewards, weight, QuestRequirements.compile(requirements)
                 );
                 
                 questTemplates.add(template);
@@ -190,25 +201,82 @@ public class DailyQuestManager {
             }
         }
         
+        templateIndexes.clear();
+        int[] weights = new int[questTemplates.size()];
+        for (int i = 0; i < questTemplates.size(); i++) {
+            templateIndexes.put(questTemplates.get(i).id(), i);
+            weights[i] = questTemplates.get(i).weight();
+        }
+        templateSampler = new AliasSampler(weights);
+        
+        List<Object> poolFields = new ArrayList<>();
+        for (DailyQuestTemplate template : questTemplates) {
+            poolFields.addAll(List.of(template.id(), template.minAmount(), template.maxAmount(), template.moneyMin(),
+                template.moneyMax(), template.expMin(), template.expMax(), template.weight()));
+        }
+        templatePoolVersion = QuestSeeds.poolVersion(poolFields);
+        
         plugin.getLogger().info("Loaded " + questTemplates.size() + " daily quest templates!");
     }
     
+    /**
+     * The player's quests for the current day. They are generated on first use, and again the first time
+     * they are used after a reset. Main thread only; the quest worker never generates quests.
+     */
     public List<DailyQuest> getPlayerDailyQuests(UUID playerId) {
-        List<DailyQuest> quests = playerDailyQuests.computeIfAbsent(playerId, k -> {
-            plugin.getLogger().info("Generating new daily quests for player: " + playerId);
-            List<DailyQuest> generated = generateNewDailyQuests();
-            plugin.getLogger().info("Generated " + generated.size() + " daily quests for player");
-            return generated;
-        });
+        long day = plugin.getQuestResetClock().currentDay();
+        List<DailyQuest> quests = playerDailyQuests.get(playerId);
+        if (quests != null && isCurrent(quests, day)) {
+            return quests;
+        }
+        
+        if (quests != null) {
+            // Yesterday's set: roll it over now rather than for everyone at midnight
+            if (quests.stream().anyMatch(this::hasRow)) {
+                deleteStaleQuests(playerId, day);
+            }
+            notifyNewQuests(playerId);
+        }
+        
+        // Nothing is written until a quest makes progress; until then the set is recomputed from its seed
+        quests = generateNewDailyQuests(playerId, day);
+        playerDailyQuests.put(playerId, quests);
+        playerDailyIndexes.put(playerId, buildProgressIndex(quests));
+        plugin.getPlayerDataManager().resetDailyData(playerId);
         return quests;
     }
     
+    /**
+     * Reroll every slot of the player's current set (admin command)
+     */
     public void generateNewDailyQuestsForPlayer(UUID playerId) {
-        playerDailyQuests.put(playerId, generateNewDailyQuests());
-        
-        // Save daily quests to database
-        saveDailyQuests(playerId);
+        List<DailyQuest> quests = getPlayerDailyQuests(playerId);
+        List<String> replacedIds = new ArrayList<>();
+        for (int slot = 0; slot < quests.size(); slot++) {
+            DailyQuest replaced = rerollSlot(playerId, quests, slot);
+            if (replaced != null && hasRow(replaced)) {
+                replacedIds.add(replaced.getId());
+            }
+        }
         
+        playerDailyIndexes.put(playerId, buildProgressIndex(quests));
+        deleteStoredQuests(playerId, replacedIds);
+        dirtyPlayers.add(playerId);
+        notifyNewQuests(playerId);
+    }
+    
+    private boolean isCurrent(List<DailyQuest> quests, long day) {
+        return quests.isEmpty() || quests.get(0).getResetEpoch() == day;
+    }
+    
+    /**
+     * Whether a quest has a row, or will have one once a queued write commits; deletes are queued behind it
+     */
+    private boolean hasRow(DailyQuest quest) {
+        return quest.isStored() || quest.isInserting();
+    }
+    
+    private void notifyNewQuests(UUID playerId) {
         Player player = Bukkit.getPlayer(playerId);
         if (player != null && player.isOnline()) {
             player.sendMessage(plugin.parseMessage("<gray>[<yellow><bold>Daily Quests</bold></yellow><gray>]<reset> New daily quests available! Use <yellow>/quests<reset> to view them."));
@@ -228,234 +296,225 @@ public class DailyQuestManager {
             return;
         }
         
+        DailyQuest replaced = rerollSlot(playerId, quests, slotIndex);
+        if (replaced != null) {
+            playerDailyIndexes.put(playerId, buildProgressIndex(quests));
+            if (hasRow(replaced)) {
+                deleteStoredQuests(playerId, List.of(replaced.getId()));
+            }
+            dirtyPlayers.add(playerId);
+            
+            plugin.getLogger().info("Reset daily quest slot " + (slotIndex + 1) + " for player " + playerId);
+        }
+    }
+    
+    /**
+     * Replace one slot with a quest drawn from the slot's next reroll seed.
+     * The new quest is marked dirty so the flusher stores it and the reroll survives a restart.
+     * @return the replaced quest, or null if there are no templates
+     */
+    private DailyQuest rerollSlot(UUID playerId, List<DailyQuest> quests, int slotIndex) {
         // Generate a new quest to replace the one at this slot
-        List<DailyQuestTemplate> availableTemplates = new ArrayList<>(questTemplates);
-        
-        if (availableTemplates.isEmpty()) {
+        if (questTemplates.isEmpty()) {
             plugin.getLogger().warning("No quest templates available for quest reset!");
-            return;
+            return null;
         }
         
-        // Remove templates that are already active for this player
+        // Exclude templates that are already active for this player
+        BitSet activeTemplates = new BitSet(questTemplates.size());
         for (DailyQuest activeQuest : quests) {
-            availableTemplates.removeIf(template -> {
-                // Extract template ID from quest ID (format: "templateId_timestamp")
-                String activeTemplateId = activeQuest.getId().split("_")[0];
-                return template.id.equals(activeTemplateId);
-            });
+            Integer index = templateIndexes.get(activeQuest.getTemplate().id());
+            if (index != null) {
+                activeTemplates.set(index);
+            }
         }
         
         // If all templates are exhausted, allow reusing them
-        if (availableTemplates.isEmpty()) {
-            availableTemplates = new ArrayList<>(questTemplates);
+        if (activeTemplates.cardinality() >= questTemplates.size()) {
+            activeTemplates.clear();
         }
         
         // Select a new quest
-        DailyQuestTemplate template = selectWeightedRandom(availableTemplates);
-        if (template != null) {
-            DailyQuest newQuest = createQuestFromTemplate(template);
-            quests.set(slotIndex, newQuest);
-            
-            // Save updated quest to database
-            saveDailyQuests(playerId);
-            
-            plugin.getLogger().info("Reset daily quest slot " + (slotIndex + 1) + " for player " + playerId);
-        }
+        DailyQuest replaced = quests.get(slotIndex);
+        int rerolls = replaced.getRerolls() + 1;
+        Random random = QuestSeeds.random(playerId, replaced.getResetEpoch(), templatePoolVersion, slotIndex, rerolls);
+        DailyQuestTemplate template = questTemplates.get(templateSampler.next(random, activeTemplates));
+        
+        DailyQuest newQuest = createQuestFromTemplate(template, random, replaced.getResetEpoch(), slotIndex, rerolls);
+        newQuest.setDirty(true);
+        quests.set(slotIndex, newQuest);
+        return replaced;
     }
     
-    private List<DailyQuest> generateNewDailyQuests() {
+    /**
+     * The quests a player gets for a day before any reroll. The same player, day and template pool
+     * always yield the same set, so an untouched set never needs to be stored or loaded.
+     */
+    private List<DailyQuest> generateNewDailyQuests(UUID playerId, long day) {
         List<DailyQuest> quests = new ArrayList<>();
-        List<DailyQuestTemplate> availableTemplates = new ArrayList<>(questTemplates);
         
-        if (availableTemplates.isEmpty()) {
+        if (questTemplates.isEmpty()) {
             plugin.getLogger().warning("No quest templates available for daily quest generation!");
             return quests;
         }
         
         // Generate 3-5 random quests using weighted selection
-        int questCount = ThreadLocalRandom.current().nextInt(3, 6); // 3-5 quests
-        for (int i = 0; i < questCount && !availableTemplates.isEmpty(); i++) {
-            DailyQuestTemplate template = selectWeightedRandom(availableTemplates);
-            if (template != null) {
-                DailyQuest quest = createQuestFromTemplate(template);
-                quests.add(quest);
-                availableTemplates.remove(template); // Don't select the same quest twice
-            }
+        Random random = QuestSeeds.random(playerId, day, templatePoolVersion);
+        int questCount = Math.min(random.nextInt(3, 6), questTemplates.size()); // 3-5 quests
+        BitSet chosen = new BitSet(questTemplates.size());
+        for (int i = 0; i < questCount; i++) {
+            int index = templateSampler.next(random, chosen);
+            chosen.set(index); // Don't select the same quest twice
+            quests.add(createQuestFromTemplate(questTemplates.get(index), random, day, i, 0));
         }
         
         return quests;
     }
     
-    private DailyQuestTemplate selectWeightedRandom(List<DailyQuestTemplate> templates) {
-        if (templates.isEmpty()) return null;
-        
-        // Calculate total weight
-        int totalWeight = templates.stream().mapToInt(t -> t.weight).sum();
-        
-        if (totalWeight <= 0) {
-            // If no weights, use simple random
-            return templates.get(ThreadLocalRandom.current().nextInt(templates.size()));
-        }
-        
-        // Select based on weight
-        int randomValue = ThreadLocalRandom.current().nextInt(totalWeight);
-        int currentWeight = 0;
-        
-        for (DailyQuestTemplate template : templates) {
-            currentWeight += template.weight;
-            if (randomValue < currentWeight) {
-                return template;
-            }
-        }
-        
-        // Fallback (should not happen)
-        return templates.get(0);
-    }
-    
-    private DailyQuest createQuestFromTemplate(DailyQuestTemplate template) {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        int targetAmount = random.nextInt(template.minAmount, template.maxAmount + 1);
-        
-        String description = template.description.replace("{target}", String.valueOf(targetAmount))
-                                                .replace("{amount}", String.valueOf(targetAmount));
-        
-        DailyQuest.DailyReward reward = new DailyQuest.DailyReward();
+    private DailyQuest createQuestFromTemplate(DailyQuestTemplate template, Random random, long day, int slot, int rerolls) {
+        int targetAmount = random.nextInt(template.minAmount(), template.maxAmount() + 1);
         
         // Randomize reward amounts between min and max
-        int money = template.moneyMin == template.moneyMax ? template.moneyMin : 
-                    random.nextInt(template.moneyMin, template.moneyMax + 1);
-        int exp = template.expMin == template.expMax ? template.expMin : 
-                  random.nextInt(template.expMin, template.expMax + 1);
-        
-        reward.setMoney(money);
-        reward.setExperience(exp);
-        reward.setQuestPoints(1); // Standard 1 QP for daily quests
-        reward.setCommands(template.commandRewards);
-        
-        // Parse item rewards
-        if (template.itemRewards != null && !template.itemRewards.isEmpty()) {
-            List<DailyQuest.DailyReward.RewardItem> items = new ArrayList<>();
-            for (String itemStr : template.itemRewards) {
-                try {
-                    String[] parts = itemStr.split(" ");
-                    if (parts.length >= 2) {
-                        Material material = Material.valueOf(parts[0]);
-                        int amount = Integer.parseInt(parts[1]);
-                        
-                        DailyQuest.DailyReward.RewardItem item = new DailyQuest.DailyReward.RewardItem();
-                        item.setMaterial(material);
-                        item.setAmount(amount);
-                        items.add(item);
-                    }
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Invalid item reward: " + itemStr);
-                }
-            }
-            reward.setItems(items);
-        }
+        int money = template.moneyMin() == template.moneyMax() ? template.moneyMin() : 
+                    random.nextInt(template.moneyMin(), template.moneyMax() + 1);
+        int exp = template.expMin() == template.expMax() ? template.expMin() : 
+                  random.nextInt(template.expMin(), template.expMax() + 1);
         
+        // Derived from the seed keys so a recomputed quest matches its stored progress row
         DailyQuest quest = new DailyQuest(
-            template.id + "_" + System.currentTimeMillis(),
-            template.name,
-            description,
-            template.type,
-            template.displayMaterial,
-            template.target,
+            template.id() + "_" + day + "_" + slot + "_" + rerolls,
+            template,
             targetAmount,
-            reward
+            template.createReward(money, exp)
         );
-        
-        // Store requirements in the quest for checking
-        quest.setRequirements(template.requirements);
-        
+        quest.setResetEpoch(day);
+        quest.setSlot(slot);
+        quest.setRerolls(rerolls);
         return quest;
     }
     
-    public void addProgress(UUID playerId, DailyQuest.QuestType type, String target, int amount) {
-        List<DailyQuest> quests = getPlayerDailyQuests(playerId);
-        
-        for (DailyQuest quest : quests) {
-            if (quest.getType() == type && !quest.isCompleted()) {
-                // Check if the target matches quest requirements
-                boolean matchesTarget = matchesQuestTarget(quest, target);
-                
-                if (matchesTarget) {
-                // Store old progress percentage for throttling
-                int oldPercentage = quest.getProgressPercentage();
-                quest.addProgress(amount);
-                int newPercentage = quest.getProgressPercentage();
-                
-                Player player = Bukkit.getPlayer(playerId);
-                if (player != null && player.isOnline()) {
-                    if (quest.isCompleted()) {
-                        // Always show completion
-                        plugin.getBossBarManager().showQuestCompleted(player, quest);
-                    } else {
-                        // Only show progress if it increased by 5% or more
-                        if (shouldShowProgressUpdate(oldPercentage, newPercentage)) {
-                            plugin.getBossBarManager().showQuestProgress(player, quest);
-                        }
-                    }
-                }
-                
-                // Save progress to database
-                saveDailyQuests(playerId);
+    private List<DailyQuest.DailyReward.RewardItem> parseItemRewards(List<String> itemRewards) {
+        List<DailyQuest.DailyReward.RewardItem> items = new ArrayList<>();
+        for (String itemStr : itemRewards) {
+            try {
+                String[] parts = itemStr.split(" ");
+                if (parts.length >= 2) {
+                    DailyQuest.DailyReward.RewardItem item = new DailyQuest.DailyReward.RewardItem();
+                    item.setMaterial(Material.valueOf(parts[0]));
+                    item.setAmount(Integer.parseInt(parts[1]));
+                    items.add(item);
                 }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Invalid item reward: " + itemStr);
             }
         }
+        return items;
     }
     
-    private boolean matchesQuestTarget(DailyQuest quest, String target) {
-        String questTarget = quest.getTarget();
-        
-        // NEVER match "ANY" - this was causing all quests to progress!
-        // "ANY" should only be used for generic category quests that explicitly need it
+    public void addProgress(UUID playerId, DailyQuest.QuestType type, String target, int amount) {
+        addProgress(playerId, type, List.of(target), amount);
+    }
+    
+    /**
+     * Apply progress to a player's loaded quests. Runs on the quest worker, so it never generates quests.
+     * A quest listening for several of the targets is progressed once.
+     */
+    public void addProgress(UUID playerId, DailyQuest.QuestType type, Collection<String> targets, int amount) {
+        List<DailyQuest> quests = playerDailyQuests.get(playerId);
+        if (quests != null && !isCurrent(quests, plugin.getQuestResetClock().currentDay())) {
+            // Expired set: don't credit it, and have the main thread roll it over
+            if (pendingRollovers.add(playerId)) {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    pendingRollovers.remove(playerId);
+                    if (playerDailyQuests.containsKey(playerId)) {
+                        getPlayerDailyQuests(playerId);
+                    }
+                });
+            }
+            return;
+        }
         
-        // Exact match with quest's primary target
-        if (questTarget.equals(target)) {
-            return true;
+        QuestProgressIndex<DailyQuest> index = playerDailyIndexes.get(playerId);
+        List<DailyQuest> matches = index != null ? index.lookup(type.name(), targets) : List.of();
+        if (matches.isEmpty()) {
+            return; // Nothing cares about this event
         }
         
-        // Check if target is in the requirements list
-        Map<String, Object> requirements = quest.getRequirements();
-        if (requirements != null) {
-            // For SMELTING quests with from_smelting requirement, ONLY match if the quest type is SMELTING
-            // This prevents mining STONE with silk touch from triggering "smelt stone" quests
-            if (requirements.containsKey("from_smelting") && (boolean) requirements.get("from_smelting")) {
-                // Smelting quests should ONLY be triggered by the FurnaceExtractEvent
-                // which calls addProgress with QuestType.SMELTING
-                // If we're here with a different quest type (like MINING), don't match
-                if (quest.getType() != DailyQuest.QuestType.SMELTING) {
-                    return false;
-                }
+        boolean progressMade = false;
+        for (DailyQuest quest : matches) {
+            if (quest.isCompleted()) {
+                continue;
             }
             
-            // Check materials list (for mining, woodcutting, farming, building, smelting)
-            if (requirements.containsKey("materials")) {
-                List<String> materials = (List<String>) requirements.get("materials");
-                if (materials != null && materials.contains(target)) {
-                    return true;
+            // Store old progress percentage for throttling
+            int oldPercentage = quest.getProgressPercentage();
+            quest.addProgress(amount);
+            int newPercentage = quest.getProgressPercentage();
+            quest.setDirty(true);
+            progressMade = true;
+            
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null && player.isOnline()) {
+                if (quest.isCompleted()) {
+                    // Always show completion
+                    plugin.getBossBarManager().showQuestCompleted(player, quest);
+                } else {
+                    // Only show progress if it increased by 5% or more
+                    if (shouldShowProgressUpdate(oldPercentage, newPercentage)) {
+                        plugin.getBossBarManager().showQuestProgress(player, quest);
+                    }
                 }
             }
+        }
+        
+        if (progressMade) {
+            // Written by the periodic flusher instead of rewriting every row per event
+            dirtyPlayers.add(playerId);
+        }
+    }
+    
+    /**
+     * Build the (type, target) lookup for a player's quest set.
+     * A quest is registered under its primary target and every material,
+     * mob type and item in its requirements.
+     */
+    private QuestProgressIndex<DailyQuest> buildProgressIndex(List<DailyQuest> quests) {
+        QuestProgressIndex<DailyQuest> index = new QuestProgressIndex<>();
+        
+        for (DailyQuest quest : quests) {
+            String type = quest.getType().name();
             
-            // Check mob_types list (for hunting quests - mob kills)
-            if (requirements.containsKey("mob_types")) {
-                List<String> mobTypes = (List<String>) requirements.get("mob_types");
-                if (mobTypes != null && mobTypes.contains(target)) {
-                    return true;
-                }
+            // Exact match with quest's primary target
+            index.add(type, quest.getTarget(), quest);
+            
+            QuestRequirements requirements = quest.getRequirements();
+            
+            // Smelting-only quests should ONLY be triggered by the FurnaceExtractEvent
+            // This prevents mining STONE with silk touch from triggering "smelt stone" quests
+            if (requirements.fromSmelting() && quest.getType() != DailyQuest.QuestType.SMELTING) {
+                continue;
             }
             
-            // Check items list (for hunting quests - item collection)
-            if (requirements.containsKey("items")) {
-                List<String> items = (List<String>) requirements.get("items");
-                if (items != null && items.contains(target)) {
-                    return true;
-                }
+            for (String target : requirements.targets()) {
+                index.add(type, target, quest);
             }
         }
         
-        return false;
+        return index;
+    }
+    
+    /**
+     * Template a stored quest was rolled from. Rows written before template_id existed
+     * derive it from the quest id ("templateId_timestamp").
+     * @return null if the template has been removed from DailyQuests.yml
+     */
+    private DailyQuestTemplate findTemplate(String templateId, String questId) {
+        if (templateId == null) {
+            int separator = questId.lastIndexOf('_');
+            templateId = separator > 0 ? questId.substring(0, separator) : questId;
+        }
+        Integer index = templateIndexes.get(templateId);
+        return index != null ? questTemplates.get(index) : null;
     }
     
     private DailyQuest.QuestType parseQuestType(String typeStr) {
@@ -528,10 +587,11 @@ public class DailyQuestManager {
                     }
                     
                     quest.claim();
+                    quest.setDirty(true);
                     player.sendMessage(plugin.parseMessage("<gray>[<green><bold>✓</bold></green><gray>]<reset> Claimed reward for: <yellow>" + quest.getName() + "<reset>!"));
                     
-                    // Save to database
-                    saveDailyQuests(playerId);
+                    // Persist the claim right away so it can't be claimed twice after a crash
+                    flushPlayer(playerId);
                     
                     return true;
                 }
@@ -541,31 +601,6 @@ public class DailyQuestManager {
         return false;
     }
     
-    private void startDailyResetScheduler() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                checkForDailyReset();
-            }
-        }.runTaskTimer(plugin, 20L * 60L, 20L * 60L); // Check every minute
-    }
-    
-    private void checkForDailyReset() {
-        LocalDateTime now = LocalDateTime.now();
-        
-        // Check if it's midnight (or close to it)
-        if (now.getHour() == 0 && now.getMinute() == 0) {
-            plugin.getLogger().info("Performing daily quest reset...");
-            
-            // Reset all player daily quests
-            for (UUID playerId : playerDailyQuests.keySet()) {
-                generateNewDailyQuestsForPlayer(playerId);
-            }
-            
-            plugin.getLogger().info("Daily quest reset completed!");
-        }
-    }
-    
     private boolean shouldShowProgressUpdate(int oldPercentage, int newPercentage) {
         // Always show first progress (0% -> any%)
         if (oldPercentage == 0 && newPercentage > 0) {
@@ -580,166 +615,354 @@ public class DailyQuestManager {
     }
     
     /**
-     * Save daily quests for a player to the database
+     * Delete the rows of earlier days once the player's set has rolled over
      */
-    private void saveDailyQuests(UUID playerId) {
-        List<DailyQuest> quests = playerDailyQuests.get(playerId);
-        if (quests == null || quests.isEmpty()) {
+    private void deleteStaleQuests(UUID playerId, long day) {
+        if (plugin.getHandoffManager().isHandedOver(playerId)) {
             return;
         }
         
         plugin.getDatabaseManager().executeAsync(connection -> {
-            try {
-                // Delete old daily quests for this player
-                String deleteSql = "DELETE FROM daily_quests WHERE player_uuid = ?";
-                try (var deleteStmt = connection.prepareStatement(deleteSql)) {
-                    deleteStmt.setString(1, playerId.toString());
-                    deleteStmt.executeUpdate();
+            String sql = "DELETE FROM daily_quests WHERE player_uuid = ? AND (reset_epoch IS NULL OR reset_epoch <> ?)";
+            try (var statement = connection.prepareStatement(sql)) {
+                statement.setString(1, playerId.toString());
+                statement.setLong(2, day);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to delete old daily quests for player " + playerId, e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
+            }
+        });
+    }
+    
+    /**
+     * Delete the rows of rerolled quests; their replacements are inserted by the flusher
+     */
+    private void deleteStoredQuests(UUID playerId, List<String> questIds) {
+        if (questIds.isEmpty() || plugin.getHandoffManager().isHandedOver(playerId)) {
+            return;
+        }
+        
+        plugin.getDatabaseManager().executeAsync(connection -> {
+            String sql = "DELETE FROM daily_quests WHERE player_uuid = ? AND quest_id = ?";
+            try (var statement = connection.prepareStatement(sql)) {
+                for (String questId : questIds) {
+                    statement.setString(1, playerId.toString());
+                    statement.setString(2, questId);
+                    statement.addBatch();
                 }
+                statement.executeBatch();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to delete rerolled daily quests for player " + playerId, e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
+            }
+        });
+    }
+    
+    private void startProgressFlusher() {
+        long intervalTicks = Math.max(1, plugin.getConfigManager().getInt("performance.quest-flush-interval", 10)) * 20L;
+        
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushDirtyQuests();
+            }
+        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+    }
+    
+    /**
+     * Write the progress of every dirty quest in one batched transaction
+     */
+    public void flushDirtyQuests() {
+        List<ProgressSnapshot> snapshots = new ArrayList<>();
+        for (UUID playerId : dirtyPlayers) {
+            dirtyPlayers.remove(playerId);
+            collectDirtyQuests(playerId, snapshots);
+        }
+        writeProgressAsync(snapshots);
+    }
+    
+    /**
+     * Write a single player's pending progress (used on quit and after claims)
+     * @return future completing once the progress has committed
+     */
+    public CompletableFuture<Void> flushPlayer(UUID playerId) {
+        dirtyPlayers.remove(playerId);
+        List<ProgressSnapshot> snapshots = new ArrayList<>();
+        collectDirtyQuests(playerId, snapshots);
+        return writeProgressAsync(snapshots);
+    }
+    
+    /**
+     * Drop a player's quests from memory once their progress has been written
+     */
+    public void unloadPlayer(UUID playerId) {
+        dirtyPlayers.remove(playerId);
+        playerDailyQuests.remove(playerId);
+        playerDailyIndexes.remove(playerId);
+    }
+    
+    /**
+     * Synchronously write all pending progress (plugin shutdown)
+     */
+    public void shutdown() {
+        List<ProgressSnapshot> snapshots = new ArrayList<>();
+        for (UUID playerId : dirtyPlayers) {
+            collectDirtyQuests(playerId, snapshots);
+        }
+        dirtyPlayers.clear();
+        
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        
+        try {
+            plugin.getDatabaseManager().executeWrite(connection -> writeProgress(connection, snapshots));
+            markStored(snapshots);
+            plugin.getLogger().info("Flushed " + snapshots.size() + " pending daily quest updates");
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to flush daily quest progress on shutdown", e);
+        }
+    }
+    
+    private void collectDirtyQuests(UUID playerId, List<ProgressSnapshot> snapshots) {
+        List<DailyQuest> quests = playerDailyQuests.get(playerId);
+        if (quests == null || plugin.getHandoffManager().isHandedOver(playerId)) {
+            return;
+        }
+        
+        for (DailyQuest quest : quests) {
+            if (quest.isDirty()) {
+                quest.setDirty(false);
                 
-                // Insert current quests
-                String insertSql = """
-                    INSERT INTO daily_quests (
-                        player_uuid, quest_id, quest_name, quest_description, quest_type,
-                        display_material, target, target_amount, current_progress,
-                        completed, claimed, requirements, reward_data, created_date
-                    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-                
-                try (var insertStmt = connection.prepareStatement(insertSql)) {
-                    for (DailyQuest quest : quests) {
-                        insertStmt.setString(1, playerId.toString());
-                        insertStmt.setString(2, quest.getId());
-                        insertStmt.setString(3, quest.getName());
-                        insertStmt.setString(4, quest.getDescription());
-                        insertStmt.setString(5, quest.getType().name());
-                        insertStmt.setString(6, quest.getDisplayMaterial().name());
-                        insertStmt.setString(7, quest.getTarget());
-                        insertStmt.setInt(8, quest.getTargetAmount());
-                        insertStmt.setInt(9, quest.getCurrentProgress());
-                        insertStmt.setBoolean(10, quest.isCompleted());
-                        insertStmt.setBoolean(11, quest.isClaimed());
-                        insertStmt.setString(12, new com.google.gson.Gson().toJson(quest.getRequirements()));
-                        insertStmt.setString(13, new com.google.gson.Gson().toJson(quest.getReward()));
-                        insertStmt.setLong(14, quest.getCreatedDate());
-                        insertStmt.executeUpdate();
-                    }
+                // A quest's row is only created the first time it has something to store; it counts
+                // as stored once that write commits, until then later flushes upsert it again
+                boolean insert = !quest.isStored();
+                if (insert) {
+                    quest.setInserting(true);
                 }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Failed to save daily quests for player " + playerId, e);
+                snapshots.add(new ProgressSnapshot(playerId, quest, quest.getCurrentProgress(),
+                    quest.isCompleted(), quest.isClaimed(), insert));
+            }
+        }
+    }
+    
+    private CompletableFuture<Void> writeProgressAsync(List<ProgressSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return plugin.getDatabaseManager().executeAsync(connection -> {
+            try {
+                writeProgress(connection, snapshots);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to flush " + snapshots.size() + " daily quest updates", e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
+            }
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                restoreSnapshots(snapshots);
+            } else {
+                markStored(snapshots);
             }
         });
     }
     
+    /**
+     * Record the rows a committed flush created
+     */
+    private void markStored(List<ProgressSnapshot> snapshots) {
+        for (ProgressSnapshot snapshot : snapshots) {
+            if (snapshot.insert()) {
+                snapshot.quest().setStored(true);
+                snapshot.quest().setInserting(false);
+            }
+        }
+    }
+    
+    /**
+     * Mark the quests of a failed flush dirty again so the next flush writes them
+     */
+    private void restoreSnapshots(List<ProgressSnapshot> snapshots) {
+        for (ProgressSnapshot snapshot : snapshots) {
+            DailyQuest quest = snapshot.quest();
+            if (snapshot.insert()) {
+                quest.setInserting(false);
+            }
+            quest.setDirty(true);
+            dirtyPlayers.add(snapshot.playerId());
+        }
+    }
+    
+    private void writeProgress(Connection connection, List<ProgressSnapshot> snapshots) throws SQLException {
+        String updateSql = """
+            UPDATE daily_quests SET current_progress = ?, completed = ?, claimed = ?
+            WHERE player_uuid = ? AND quest_id = ?
+        """;
+        
+        // Only the template id, seed keys and rolled values are stored; name, description and
+        // requirements come from the template on load (the old NOT NULL columns get blanks).
+        // A row whose first write is still in flight is upserted again by the next flush.
+        String insertSql = plugin.getDatabaseManager().getDialect().upsert("daily_quests")
+            .keys("player_uuid", "quest_id")
+            .columns("template_id", "quest_name", "quest_description", "quest_type", "display_material", "target",
+                "target_amount", "current_progress", "completed", "claimed", "reward_data", "created_date",
+                "reset_epoch", "slot_index", "rerolls")
+            .build();
+        
+        // The writer commits the whole batch in one transaction
+        try (var updateStatement = connection.prepareStatement(updateSql);
+             var insertStatement = connection.prepareStatement(insertSql)) {
+            for (ProgressSnapshot snapshot : snapshots) {
+                DailyQuest quest = snapshot.quest();
+                if (snapshot.insert()) {
+                    insertStatement.setString(1, snapshot.playerId().toString());
+                    insertStatement.setString(2, quest.getId());
+                    insertStatement.setString(3, quest.getTemplate().id());
+                    insertStatement.setString(4, "");
+                    insertStatement.setString(5, "");
+                    insertStatement.setString(6, quest.getType().name());
+                    insertStatement.setString(7, quest.getDisplayMaterial().name());
+                    insertStatement.setString(8, quest.getTarget());
+                    insertStatement.setInt(9, quest.getTargetAmount());
+                    insertStatement.setInt(10, snapshot.progress());
+                    insertStatement.setBoolean(11, snapshot.completed());
+                    insertStatement.setBoolean(12, snapshot.claimed());
+                    insertStatement.setString(13, gson.toJson(new RewardRoll(quest.getReward().getMoney(), quest.getReward().getExperience())));
+                    insertStatement.setLong(14, quest.getCreatedDate());
+                    insertStatement.setLong(15, quest.getResetEpoch());
+                    insertStatement.setInt(16, quest.getSlot());
+                    insertStatement.setInt(17, quest.getRerolls());
+                    insertStatement.addBatch();
+                } else {
+                    updateStatement.setInt(1, snapshot.progress());
+                    updateStatement.setBoolean(2, snapshot.completed());
+                    updateStatement.setBoolean(3, snapshot.claimed());
+                    updateStatement.setString(4, snapshot.playerId().toString());
+                    updateStatement.setString(5, quest.getId());
+                    updateStatement.addBatch();
+                }
+            }
+            insertStatement.executeBatch();
+            updateStatement.executeBatch();
+        }
+    }
+    
     /**
      * Load daily quests for a player from the database
      */
     public void loadDailyQuests(UUID playerId) {
         try (var connection = plugin.getDatabaseManager().getConnection()) {
-            String sql = """
-                SELECT quest_id, quest_name, quest_description, quest_type, display_material,
-                       target, target_amount, current_progress, completed, claimed,
-                       requirements, reward_data, created_date
-                FROM daily_quests
-                WHERE player_uuid = ?
-            """;
+            attachDailyQuests(playerId, readDailyQuests(connection, playerId));
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load daily quests for player " + playerId, e);
+        }
+    }
+    
+    /**
+     * Read a player's stored daily quests on the given connection
+     */
+    public List<DailyQuest> readDailyQuests(Connection connection, UUID playerId) throws SQLException {
+        String sql = """
+            SELECT quest_id, template_id, target_amount, current_progress, completed, claimed,
+                   reward_data, created_date, reset_epoch, slot_index, rerolls
+            FROM daily_quests
+            WHERE player_uuid = ?
+        """;
+        
+        List<DailyQuest> loadedQuests = new ArrayList<>();
+        try (var stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, playerId.toString());
             
-            try (var stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                
-                try (var rs = stmt.executeQuery()) {
-                    List<DailyQuest> loadedQuests = new ArrayList<>();
-                    com.google.gson.Gson gson = new com.google.gson.Gson();
-                    
-                    while (rs.next()) {
-                        // Parse quest type
-                        DailyQuest.QuestType questType = DailyQuest.QuestType.valueOf(rs.getString("quest_type"));
-                        
-                        // Parse display material
-                        Material displayMaterial = Material.valueOf(rs.getString("display_material"));
-                        
-                        // Parse requirements
-                        String requirementsJson = rs.getString("requirements");
-                        Map<String, Object> requirements = gson.fromJson(requirementsJson, 
-                            new com.google.gson.reflect.TypeToken<Map<String, Object>>(){}.getType());
-                        
-                        // Parse reward
-                        String rewardJson = rs.getString("reward_data");
-                        DailyQuest.DailyReward reward = gson.fromJson(rewardJson, DailyQuest.DailyReward.class);
-                        
-                        // Create quest object
-                        DailyQuest quest = new DailyQuest(
-                            rs.getString("quest_id"),
-                            rs.getString("quest_name"),
-                            rs.getString("quest_description"),
-                            questType,
-                            displayMaterial,
-                            rs.getString("target"),
-                            rs.getInt("target_amount"),
-                            reward
-                        );
-                        
-                        // Set progress and state
-                        quest.setCurrentProgress(rs.getInt("current_progress"));
-                        quest.setCompleted(rs.getBoolean("completed"));
-                        quest.setClaimed(rs.getBoolean("claimed"));
-                        quest.setRequirements(requirements);
-                        quest.setCreatedDate(rs.getLong("created_date"));
-                        
-                        loadedQuests.add(quest);
+            try (var rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String questId = rs.getString("quest_id");
+                    DailyQuestTemplate template = findTemplate(rs.getString("template_id"), questId);
+                    if (template == null) {
+                        plugin.getLogger().info("Dropping daily quest " + questId + " of " + playerId + ": its template no longer exists");
+                        continue;
                     }
                     
-                    if (!loadedQuests.isEmpty()) {
-                        playerDailyQuests.put(playerId, loadedQuests);
-                        plugin.getLogger().info("Loaded " + loadedQuests.size() + " daily quests for player " + playerId);
-                    }
+                    // Older rows hold the whole reward here; only the rolled amounts are read back
+                    RewardRoll roll = gson.fromJson(rs.getString("reward_data"), RewardRoll.class);
+                    
+                    DailyQuest quest = new DailyQuest(
+                        questId,
+                        template,
+                        rs.getInt("target_amount"),
+                        template.createReward(roll.money(), roll.experience())
+                    );
+                    
+                    // Set progress and state
+                    quest.setCurrentProgress(rs.getInt("current_progress"));
+                    quest.setCompleted(rs.getBoolean("completed"));
+                    quest.setClaimed(rs.getBoolean("claimed"));
+                    quest.setCreatedDate(rs.getLong("created_date"));
+                    
+                    // Rows written before reset epochs were stored fall back to their creation day
+                    long resetEpoch = rs.getLong("reset_epoch");
+                    quest.setResetEpoch(rs.wasNull() ? plugin.getQuestResetClock().dayOf(quest.getCreatedDate()) : resetEpoch);
+                    
+                    // Slot -1 marks a row written before sets were seeded
+                    int slot = rs.getInt("slot_index");
+                    quest.setSlot(rs.wasNull() ? -1 : slot);
+                    quest.setRerolls(rs.getInt("rerolls"));
+                    quest.setStored(true);
+                    
+                    loadedQuests.add(quest);
                 }
             }
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to load daily quests for player " + playerId, e);
         }
+        return loadedQuests;
     }
     
-    // Template class for quest generation
-    private static class DailyQuestTemplate {
-        final String id;
-        final String name;
-        final String description;
-        final DailyQuest.QuestType type;
-        final Material displayMaterial;
-        final String target;
-        final int minAmount;
-        final int maxAmount;
-        final int moneyMin;
-        final int moneyMax;
-        final int expMin;
-        final int expMax;
-        final List<String> itemRewards;
-        final List<String> commandRewards;
-        final int weight;
-        final Map<String, Object> requirements;
-        
-        DailyQuestTemplate(String id, String name, String description, DailyQuest.QuestType type,
-                          Material displayMaterial, String target, int minAmount, int maxAmount,
-                          int moneyMin, int moneyMax, int expMin, int expMax,
-                          List<String> itemRewards, List<String> commandRewards,
-                          int weight, Map<String, Object> requirements) {
-            this.id = id;
-            this.name = name;
-            this.description = description;
-            this.type = type;
-            this.displayMaterial = displayMaterial;
-            this.target = target;
-            this.minAmount = minAmount;
-            this.maxAmount = maxAmount;
-            this.moneyMin = moneyMin;
-            this.moneyMax = moneyMax;
-            this.expMin = expMin;
-            this.expMax = expMax;
-            this.itemRewards = itemRewards;
-            this.commandRewards = commandRewards;
-            this.weight = weight;
-            this.requirements = requirements;
+    /**
+     * Install quests read from the database for a player
+     */
+    public void attachDailyQuests(UUID playerId, List<DailyQuest> loadedQuests) {
+        // A quick rejoin keeps the in-memory quests, which may hold progress not yet written
+        if (loadedQuests.isEmpty() || playerDailyQuests.containsKey(playerId)) {
+            return;
         }
+        
+        long day = plugin.getQuestResetClock().currentDay();
+        List<DailyQuest> storedQuests = loadedQuests.stream().filter(quest -> quest.getResetEpoch() == day).toList();
+        if (storedQuests.size() < loadedQuests.size()) {
+            deleteStaleQuests(playerId, day);
+        }
+        if (storedQuests.isEmpty()) {
+            return; // Today's set is generated on first use
+        }
+        
+        List<DailyQuest> quests = restoreDailyQuests(playerId, day, storedQuests);
+        playerDailyQuests.put(playerId, quests);
+        playerDailyIndexes.put(playerId, buildProgressIndex(quests));
+        plugin.getLogger().info("Loaded " + storedQuests.size() + " daily quests for player " + playerId);
     }
+    
+    /**
+     * Recompute the day's set and put the stored quests back into their slots
+     */
+    private List<DailyQuest> restoreDailyQuests(UUID playerId, long day, List<DailyQuest> storedQuests) {
+        // Rows from before sets were seeded hold the whole set
+        if (storedQuests.stream().anyMatch(quest -> quest.getSlot() < 0)) {
+            return new ArrayList<>(storedQuests);
+        }
+        
+        List<DailyQuest> quests = generateNewDailyQuests(playerId, day);
+        for (DailyQuest stored : storedQuests) {
+            // The latest reroll of a slot wins; slots past the end were rolled from an older template pool
+            int slot = stored.getSlot();
+            if (slot < quests.size() && stored.getRerolls() >= quests.get(slot).getRerolls()) {
+                quests.set(slot, stored);
+            }
+        }
+        return quests;
+    }
+    
+    // Progress columns captured on the main thread for the async writer; the rest of a quest never changes
+    private record ProgressSnapshot(UUID playerId, DailyQuest quest, int progress, boolean completed, boolean claimed, boolean insert) {}
+    
+    // Rolled reward amounts stored in reward_data
+    private record RewardRoll(int money, int experience) {}
 }
@@ -5,6 +5,7 @@ import com.ryzz3nn.woidzquests.models.GlobalQuest;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.Tag;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
@@ -16,12 +17,28 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Server-wide quests. Several servers may share one database: each adds its own progress and
+ * contribution deltas to the shared rows on an interval and reads the network-wide totals back,
+ * and completion is settled by a conditional update so exactly one server wins it.
+ */
 public class GlobalQuestManager {
 
+    // How long after a completion its replacement quest appears
+    private static final long REFILL_DELAY_MS = TimeUnit.MINUTES.toMillis(30);
+    
     private final WoidZQuests plugin;
-    private final List<GlobalQuest> activeGlobalQuests = new ArrayList<>();
-    private final Map<String, BukkitTask> refillTasks = new HashMap<>();
+    // Progress can arrive from any thread; the list is only replaced on the main thread
+    private final List<GlobalQuest> activeGlobalQuests = new CopyOnWriteArrayList<>();
+    private volatile QuestProgressIndex<GlobalQuest> progressIndex = new QuestProgressIndex<>();
+    private final Map<String, BukkitTask> refillTasks = new ConcurrentHashMap<>();
+    private final Set<String> handledCompletions = new HashSet<>(); // Quests whose completion was announced here; main thread only
     private final List<GlobalQuestTemplate> questTemplates = new ArrayList<>();
     private final Gson gson = new Gson();
 
@@ -30,6 +47,7 @@ public class GlobalQuestManager {
         initializeQuestTemplates();
         loadGlobalQuests();
         scheduleProgressAnnouncements();
+        startProgressFlusher();
     }
 
     private void initializeQuestTemplates() {
@@ -76,11 +94,22 @@ public class GlobalQuestManager {
             plugin.getLogger().warning("Failed to load global quests from database: " + e.getMessage());
         }
         
+        try {
+            plugin.getDatabaseManager().executeWrite(this::migrateLegacyContributions);
+            try (Connection connection = plugin.getDatabaseManager().getConnection()) {
+                loadContributions(connection);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to load global quest contributions: " + e.getMessage());
+        }
+        
         // If no quests loaded from database, generate initial quests
         if (activeGlobalQuests.isEmpty()) {
             generateInitialGlobalQuests();
         }
         
+        rebuildProgressIndex();
+        
         plugin.getLogger().info("Loaded " + activeGlobalQuests.size() + " active global quests");
     }
     
@@ -102,46 +131,80 @@ public class GlobalQuestManager {
     }
 
     public void addProgress(UUID playerId, String questType, String target, long amount) {
-        for (GlobalQuest quest : activeGlobalQuests) {
-            if (quest.getType().equals(questType) && 
-                (quest.getTarget().equals(target) || isMatchingCategory(quest.getTarget(), target)) &&
-                !quest.isCompleted()) {
-                
-                long oldProgress = quest.getCurrentProgress();
-                quest.addProgress(playerId, amount);
-                
-                // Save progress to database
-                saveGlobalQuest(quest);
-                
-                // Announce major milestones (every 25%)
-                if (shouldAnnounceMilestone(oldProgress, quest.getCurrentProgress(), quest.getTargetAmount())) {
-                    announceMilestone(quest);
+        addProgress(playerId, questType, List.of(target), amount);
+    }
+    
+    /**
+     * Each target carries its amount over its own matching quests; a quest listening for several of the
+     * targets is progressed once
+     */
+    public void addProgress(UUID playerId, String questType, Collection<String> targets, long amount) {
+        QuestProgressIndex<GlobalQuest> index = progressIndex;
+        Set<GlobalQuest> credited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String target : targets) {
+            long remaining = amount;
+            for (GlobalQuest quest : index.lookup(questType, target)) {
+                if (remaining <= 0) {
+                    break;
                 }
-                
-                // Announce completion and schedule refill
-                if (quest.isCompleted() && oldProgress < quest.getTargetAmount()) {
-                    announceCompletion(quest);
-                    scheduleQuestRefill(quest);
+                if (!quest.isCompleted() && credited.add(quest)) {
+                    
+                    // Progress beyond this quest's target carries over to the next quest matching this target
+                    long applied = Math.min(remaining, Math.max(1, quest.getTargetAmount() - quest.getCurrentProgress()));
+                    remaining -= applied;
+                    boolean justCompleted = quest.addProgress(playerId, applied);
+                    
+                    // Progress and contribution deltas are written by the periodic flusher
+                    
+                    // Announce major milestones (every 25%)
+                    if (quest.advanceMilestone()) {
+                        runOnMainThread(() -> announceMilestone(quest));
+                    }
+                    
+                    // Settle completion with the other servers right away; the merge result announces it
+                    if (justCompleted) {
+                        runOnMainThread(this::mergeProgress);
+                    }
                 }
-                
-                break;
             }
         }
     }
 
-    private boolean shouldAnnounceMilestone(long oldProgress, long newProgress, long target) {
-        int oldPercentage = (int) ((oldProgress * 100) / target);
-        int newPercentage = (int) ((newProgress * 100) / target);
-        return (newPercentage / 25) > (oldPercentage / 25); // Every 25%
+    /**
+     * Rebuild the (type, target) lookup after the active quest list changes.
+     * Category targets such as WOOD_PLANKS are expanded to every matching material up front.
+     */
+    private void rebuildProgressIndex() {
+        QuestProgressIndex<GlobalQuest> index = new QuestProgressIndex<>();
+        
+        for (GlobalQuest quest : activeGlobalQuests) {
+            index.add(quest.getType(), quest.getTarget(), quest);
+            
+            if ("WOOD_PLANKS".equals(quest.getTarget())) {
+                for (Material planks : Tag.PLANKS.getValues()) {
+                    index.add(quest.getType(), planks.name(), quest);
+                }
+            }
+        }
+        
+        progressIndex = index;
+    }
+
+    private void runOnMainThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
     }
 
     private void announceMilestone(GlobalQuest quest) {
-        int percentage = quest.getProgressPercentage();
+        GlobalQuest.Snapshot snapshot = quest.snapshot();
         Component message = plugin.parseMessage(
             "<gray>[<gold><bold>Global Quest</bold></gold><gray>]<reset> " +
-            quest.getProgressColor() + quest.getName() + "<reset> is now " +
-            quest.getProgressColor() + percentage + "%<reset> complete! " +
-            "<gray>(" + quest.getFormattedProgress() + "/" + quest.getFormattedTarget() + ")"
+            snapshot.getProgressColor() + quest.getName() + "<reset> is now " +
+            snapshot.getProgressColor() + snapshot.getProgressPercentage() + "%<reset> complete! " +
+            "<gray>(" + snapshot.getFormattedProgress() + "/" + snapshot.getFormattedTarget() + ")"
         );
         
         Bukkit.broadcast(message);
@@ -157,15 +220,12 @@ public class GlobalQuestManager {
         Bukkit.broadcast(message);
     }
 
-    private boolean isMatchingCategory(String questTarget, String actualTarget) {
-        // Handle wood planks category
-        if ("WOOD_PLANKS".equals(questTarget)) {
-            return actualTarget.endsWith("_PLANKS");
-        }
-        return false;
-    }
-
-    public boolean claimReward(UUID playerId, String questId) {
+    /**
+     * Claim a completed quest's reward. The claim is settled in the shared database first, so a player
+     * gets each reward once across every server; rewards are granted on the main thread afterwards.
+     * @return future completing on the main thread with whether the reward was granted
+     */
+    public CompletableFuture<Boolean> claimReward(UUID playerId, String questId) {
         for (GlobalQuest quest : activeGlobalQuests) {
             if (quest.getId().equals(questId) && quest.isCompleted() && !quest.hasPlayerClaimed(playerId)) {
                 
@@ -175,54 +235,77 @@ public class GlobalQuestManager {
                     if (player != null) {
                         player.sendMessage(plugin.parseMessage("<gray>[<red><bold>!</bold></red><gray>]<reset> You must contribute to this global quest to claim rewards!"));
                     }
-                    return false;
+                    return CompletableFuture.completedFuture(false);
                 }
                 
-                quest.setPlayerClaimed(playerId, true);
-                
-                // Save claimed status to database
-                saveGlobalQuest(quest);
+                // Held while the claim is settled so a second click doesn't start another
+                if (!quest.tryClaim(playerId)) {
+                    return CompletableFuture.completedFuture(false);
+                }
                 
-                Player player = Bukkit.getPlayer(playerId);
-                if (player != null && player.isOnline()) {
-                    GlobalQuest.GlobalReward reward = quest.getReward();
-                    
-                    // Give money reward
-                    if (reward.getMoney() > 0 && plugin.getVaultIntegration() != null) {
-                        plugin.getVaultIntegration().deposit(player, reward.getMoney());
-                        player.sendMessage(plugin.parseMessage("<gray>[<green><bold>$</bold></green><gray>]<reset> Received <green>$" + reward.getMoney() + "<reset>!"));
-                    }
-                    
-                    // Give XP reward
-                    if (reward.getExperience() > 0) {
-                        player.giveExp(reward.getExperience());
-                        player.sendMessage(plugin.parseMessage("<gray>[<aqua><bold>✦</bold></aqua><gray>]<reset> Received <aqua>" + reward.getExperience() + " XP<reset>!"));
+                CompletableFuture<Boolean> granted = new CompletableFuture<>();
+                saveClaim(quest, playerId).whenComplete((won, error) -> runOnMainThread(() -> {
+                    if (error != null) {
+                        quest.setPlayerClaimed(playerId, false); // Nothing was stored; the player can try again
+                        granted.complete(false);
+                        return;
                     }
                     
-                    // Quest Points reward (standardized: 10 QP for global quests)
-                    String qpCommand = "qp give " + player.getName() + " 10";
-                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), qpCommand);
-                    player.sendMessage(plugin.parseMessage("<gray>[<light_purple><bold>★</bold></light_purple><gray>]<reset> Received <light_purple>10 Quest Points<reset>!"));
-                    
-                    // Command-based rewards for maximum flexibility
-                    if (reward.getCommands() != null && !reward.getCommands().isEmpty()) {
-                        for (String command : reward.getCommands()) {
-                            String processedCommand = command.replace("{player}", player.getName())
-                                                           .replace("{amount}", String.valueOf(reward.getQuestPoints()));
-                            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCommand);
+                    // Another server already recorded the claim; the flag stays set
+                    if (!won) {
+                        Player player = Bukkit.getPlayer(playerId);
+                        if (player != null) {
+                            player.sendMessage(plugin.parseMessage("<gray>[<gold><bold>!</bold></gold><gray>]<reset> You have already claimed the reward for this quest!"));
                         }
+                        granted.complete(false);
+                        return;
                     }
                     
-                    long contribution = quest.getPlayerContribution(playerId);
-                    player.sendMessage(plugin.parseMessage("<gray>[<green><bold>✓</bold></green><gray>]<reset> Claimed reward for: <yellow>" + quest.getName() + "<reset>!"));
-                    player.sendMessage(plugin.parseMessage("<gray>Your contribution: <gold>" + formatLargeNumber(contribution) + "<reset>"));
-                }
-                
-                return true;
+                    grantReward(quest, playerId);
+                    granted.complete(true);
+                }));
+                return granted;
             }
         }
         
-        return false;
+        return CompletableFuture.completedFuture(false);
+    }
+    
+    private void grantReward(GlobalQuest quest, UUID playerId) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null && player.isOnline()) {
+            GlobalQuest.GlobalReward reward = quest.getReward();
+            
+            // Give money reward
+            if (reward.getMoney() > 0 && plugin.getVaultIntegration() != null) {
+                plugin.getVaultIntegration().deposit(player, reward.getMoney());
+                player.sendMessage(plugin.parseMessage("<gray>[<green><bold>$</bold></green><gray>]<reset> Received <green>$" + reward.getMoney() + "<reset>!"));
+            }
+            
+            // Give XP reward
+            if (reward.getExperience() > 0) {
+                player.giveExp(reward.getExperience());
+                player.sendMessage(plugin.parseMessage("<gray>[<aqua><bold>✦</bold></aqua><gray>]<reset> Received <aqua>" + reward.getExperience() + " XP<reset>!"));
+            }
+            
+            // Quest Points reward (standardized: 10 QP for global quests)
+            String qpCommand = "qp give " + player.getName() + " 10";
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), qpCommand);
+            player.sendMessage(plugin.parseMessage("<gray>[<light_purple><bold>★</bold></light_purple><gray>]<reset> Received <light_purple>10 Quest Points<reset>!"));
+            
+            // Command-based rewards for maximum flexibility
+            if (reward.getCommands() != null && !reward.getCommands().isEmpty()) {
+                for (String command : reward.getCommands()) {
+                    String processedCommand = command.replace("{player}", player.getName())
+                                                   .replace("{amount}", String.valueOf(reward.getQuestPoints()));
+                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCommand);
+                }
+            }
+            
+            long contribution = quest.getPlayerContribution(playerId);
+            player.sendMessage(plugin.parseMessage("<gray>[<green><bold>✓</bold></green><gray>]<reset> Claimed reward for: <yellow>" + quest.getName() + "<reset>!"));
+            player.sendMessage(plugin.parseMessage("<gray>Your contribution: <gold>" + formatLargeNumber(contribution) + "<reset>"));
+        }
     }
 
     private void scheduleProgressAnnouncements() {
@@ -231,12 +314,13 @@ public class GlobalQuestManager {
             @Override
             public void run() {
                 for (GlobalQuest quest : activeGlobalQuests) {
-                    if (!quest.isCompleted() && quest.getCurrentProgress() > 0) {
+                    GlobalQuest.Snapshot snapshot = quest.snapshot();
+                    if (!snapshot.completed() && snapshot.currentProgress() > 0) {
                         Component message = plugin.parseMessage(
                             "<gray>[<gold><bold>Global Quest</bold></gold><gray>]<reset> " +
-                            quest.getProgressColor() + quest.getName() + "<reset> - " +
-                            quest.getProgressColor() + quest.getProgressPercentage() + "%<reset> complete " +
-                            "<gray>(" + quest.getFormattedProgress() + "/" + quest.getFormattedTarget() + ")"
+                            snapshot.getProgressColor() + quest.getName() + "<reset> - " +
+                            snapshot.getProgressColor() + snapshot.getProgressPercentage() + "%<reset> complete " +
+                            "<gray>(" + snapshot.getFormattedProgress() + "/" + snapshot.getFormattedTarget() + ")"
                         );
                         
                         Bukkit.broadcast(message);
@@ -260,21 +344,25 @@ public class GlobalQuestManager {
                               amount, template.displayMaterial, reward);
     }
 
-    private void scheduleQuestRefill(GlobalQuest completedQuest) {
+    /**
+     * Retire a completed quest locally once its replacement is due. The replacement itself is created
+     * by whichever server's merge claims the refill stored on the quest's row.
+     */
+    private void scheduleQuestRetirement(GlobalQuest completedQuest) {
         // Cancel any existing refill task for this quest
         BukkitTask existingTask = refillTasks.get(completedQuest.getId());
         if (existingTask != null) {
             existingTask.cancel();
         }
         
-        // Schedule new quest to replace this one in 30 minutes (36000 ticks)
+        // Retire it here once the replacement is due (30 minutes)
         BukkitTask refillTask = new BukkitRunnable() {
             @Override
             public void run() {
-                refillCompletedQuest(completedQuest);
+                retireCompletedQuest(completedQuest);
                 refillTasks.remove(completedQuest.getId());
             }
-        }.runTaskLater(plugin, 36000L); // 30 minutes = 30 * 60 * 20 ticks
+        }.runTaskLater(plugin, REFILL_DELAY_MS / 50L); // 50 ms per tick
         
         refillTasks.put(completedQuest.getId(), refillTask);
         
@@ -286,98 +374,438 @@ public class GlobalQuestManager {
         Bukkit.broadcast(announcement);
     }
     
-    private void refillCompletedQuest(GlobalQuest completedQuest) {
-        // Mark quest as completed in database and remove from active list
-        markQuestCompleted(completedQuest);
+    private void retireCompletedQuest(GlobalQuest completedQuest) {
+        // Completion is already stored by the merge; just retire the quest here
         activeGlobalQuests.remove(completedQuest);
-        
-        // Generate a new quest to replace it
+        rebuildProgressIndex();
+    }
+    
+    /**
+     * A random template that is not currently active, or any template if all of them are
+     */
+    private GlobalQuestTemplate selectReplacementTemplate(List<GlobalQuest> active) {
         List<GlobalQuestTemplate> availableTemplates = new ArrayList<>(questTemplates);
         Collections.shuffle(availableTemplates);
         
-        // Find a template that's not currently active
-        GlobalQuestTemplate selectedTemplate = null;
         for (GlobalQuestTemplate template : availableTemplates) {
-            boolean isActive = activeGlobalQuests.stream()
+            boolean isActive = active.stream()
                 .anyMatch(quest -> quest.getType().equals(template.type) && quest.getTarget().equals(template.target));
             
             if (!isActive) {
-                selectedTemplate = template;
-                break;
+                return template;
+            }
+        }
+        
+        // All templates are active (shouldn't happen with enough templates)
+        return availableTemplates.isEmpty() ? null : availableTemplates.get(0);
+    }
+    
+    private String formatLargeNumber(long number) {
+        if (number >= 1_000_000) {
+            return String.format("%.1fM", number / 1_000_000.0);
+        } else if (number >= 1_000) {
+            return String.format("%.1fK", number / 1_000.0);
+        }
+        return String.valueOf(number);
+    }
+    
+    private void saveGlobalQuest(GlobalQuest quest) {
+        plugin.getDatabaseManager().executeAsync(connection -> {
+            try {
+                writeGlobalQuest(connection, quest);
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to save global quest " + quest.getId() + ": " + e.getMessage());
+                throw e; // Rolls back this operation's savepoint in the writer batch
+            }
+        });
+    }
+    
+    private void writeGlobalQuest(Connection connection, GlobalQuest quest) throws SQLException {
+        String sql = plugin.getDatabaseManager().getDialect().upsert("global_quests")
+            .keys("id")
+            .columns("name", "description", "type", "target", "target_amount", "current_progress", "completed",
+                "display_material", "reward_data")
+            .now("updated_at")
+            .build();
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, quest.getId());
+            statement.setString(2, quest.getName());
+            statement.setString(3, quest.getDescription());
+            statement.setString(4, quest.getType());
+            statement.setString(5, quest.getTarget());
+            statement.setLong(6, quest.getTargetAmount());
+            statement.setLong(7, quest.getCurrentProgress());
+            statement.setBoolean(8, quest.isCompleted());
+            statement.setString(9, quest.getDisplayMaterial().name());
+            statement.setString(10, gson.toJson(quest.getReward()));
+            
+            statement.executeUpdate();
+        }
+    }
+    
+    private void startProgressFlusher() {
+        long intervalTicks = Math.max(1, plugin.getConfigManager().getInt("performance.global-merge-interval", 5)) * 20L;
+        
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                mergeProgress();
+            }
+        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+    }
+    
+    /**
+     * Add this server's progress and contribution deltas to the shared rows, settle completion and
+     * read the network-wide totals back. Main thread only.
+     */
+    public void mergeProgress() {
+        // Runs even without local quests so this server still discovers quests started elsewhere and due replacements
+        List<QuestSnapshot> snapshots = collectSnapshots();
+        MergeResult result = new MergeResult(new HashMap<>(), new ArrayList<>());
+        plugin.getDatabaseManager().executeAsync(connection -> writeProgress(connection, snapshots, result)).whenComplete((ignored, error) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            
+            if (error != null) {
+                plugin.getLogger().warning("Failed to merge global quest progress: " + error.getMessage());
+                Bukkit.getScheduler().runTask(plugin, () -> restoreSnapshots(snapshots));
+            } else {
+                // Only act on totals once they are committed
+                Bukkit.getScheduler().runTask(plugin, () -> applyMerge(snapshots, result));
+            }
+        });
+    }
+    
+    private List<QuestSnapshot> collectSnapshots() {
+        List<QuestSnapshot> snapshots = new ArrayList<>();
+        for (GlobalQuest quest : activeGlobalQuests) {
+            GlobalQuest.ContributionDeltas deltas = quest.drainPendingContributions();
+            long progressDelta = quest.drainPendingProgress();
+            snapshots.add(new QuestSnapshot(quest.getId(), progressDelta, quest.getDrainedProgress(),
+                handledCompletions.contains(quest.getId()), deltas));
+        }
+        return snapshots;
+    }
+    
+    /**
+     * Put deltas from a failed merge back so the next merge sends them again
+     */
+    private void restoreSnapshots(List<QuestSnapshot> snapshots) {
+        Map<String, GlobalQuest> questsById = getQuestsById();
+        for (QuestSnapshot snapshot : snapshots) {
+            GlobalQuest quest = questsById.get(snapshot.questId());
+            if (quest != null) {
+                quest.restorePending(snapshot.progressDelta(), snapshot.contributionDeltas());
             }
         }
+    }
+    
+    private void writeProgress(Connection connection, List<QuestSnapshot> snapshots, MergeResult result) throws SQLException {
+        // Deltas are added, never assigned, so servers sharing the row cannot overwrite each other
+        String progressSql = "UPDATE global_quests SET current_progress = current_progress + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+        String contributionSql = plugin.getDatabaseManager().getDialect().upsert("global_quest_contributions")
+            .keys("quest_id", "player_uuid")
+            .add("contribution")
+            .build();
+        // Only the first server to see the target reached flips the flag and sets when the replacement is due
+        String completeSql = """
+            UPDATE global_quests SET completed = TRUE, refill_at = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND completed = FALSE AND current_progress >= target_amount
+        """;
         
-        // If all templates are active, just pick the first one (shouldn't happen with enough templates)
-        if (selectedTemplate == null && !availableTemplates.isEmpty()) {
-            selectedTemplate = availableTemplates.get(0);
+        long now = System.currentTimeMillis();
+        try (PreparedStatement progressStatement = connection.prepareStatement(progressSql);
+             PreparedStatement contributionStatement = connection.prepareStatement(contributionSql);
+             PreparedStatement completeStatement = connection.prepareStatement(completeSql)) {
+            
+            for (QuestSnapshot snapshot : snapshots) {
+                if (snapshot.progressDelta() > 0) {
+                    progressStatement.setLong(1, snapshot.progressDelta());
+                    progressStatement.setString(2, snapshot.questId());
+                    progressStatement.addBatch();
+                }
+                
+                GlobalQuest.ContributionDeltas deltas = snapshot.contributionDeltas();
+                for (int i = 0; i < deltas.size(); i++) {
+                    contributionStatement.setString(1, snapshot.questId());
+                    contributionStatement.setString(2, deltas.playerIds()[i].toString());
+                    contributionStatement.setLong(3, deltas.amounts()[i]);
+                    contributionStatement.addBatch();
+                }
+            }
+            
+            progressStatement.executeBatch();
+            contributionStatement.executeBatch();
+            
+            for (QuestSnapshot snapshot : snapshots) {
+                completeStatement.setLong(1, now + REFILL_DELAY_MS);
+                completeStatement.setString(2, snapshot.questId());
+                completeStatement.addBatch();
+            }
+            completeStatement.executeBatch();
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement("SELECT current_progress, completed FROM global_quests WHERE id = ?")) {
+            for (int i = 0; i < snapshots.size(); i++) {
+                QuestSnapshot snapshot = snapshots.get(i);
+                statement.setString(1, snapshot.questId());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        continue;
+                    }
+                    
+                    boolean completed = resultSet.getBoolean("completed");
+                    result.states().put(snapshot.questId(), new QuestState(resultSet.getLong("current_progress"), completed,
+                        completed && !snapshot.completionKnown() ? readContributions(connection, snapshot.questId()) : null));
+                }
+            }
         }
         
-        if (selectedTemplate != null) {
-            GlobalQuest newQuest = createQuestFromTemplate(selectedTemplate);
-            activeGlobalQuests.add(newQuest);
+        // Quests started by another server
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM global_quests WHERE completed = FALSE");
+             ResultSet resultSet = statement.executeQuery()) {
             
-            // Save new quest to database
-            saveGlobalQuest(newQuest);
+            while (resultSet.next()) {
+                if (!result.states().containsKey(resultSet.getString("id"))) {
+                    GlobalQuest quest = deserializeGlobalQuest(resultSet);
+                    if (quest != null) {
+                        result.discovered().add(quest);
+                    }
+                }
+            }
+        }
+        
+        claimDueRefills(connection, now, result);
+    }
+    
+    /**
+     * Create the replacements that have come due for quests completed on any server. The conditional
+     * UPDATE lets exactly one server claim each, and the new quest is written in the same transaction,
+     * so a replacement is neither lost with a restarting server nor created twice.
+     */
+    private void claimDueRefills(Connection connection, long now, MergeResult result) throws SQLException {
+        List<String> due = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM global_quests WHERE completed = TRUE AND refill_at IS NOT NULL AND refill_at <= ?")) {
+            statement.setLong(1, now);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    due.add(resultSet.getString("id"));
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE global_quests SET refill_at = NULL WHERE id = ? AND refill_at IS NOT NULL")) {
+            for (String questId : due) {
+                statement.setString(1, questId);
+                if (statement.executeUpdate() == 0) {
+                    continue; // Claimed by another server
+                }
+                
+                // Avoid templates that are active here or were just discovered or created
+                List<GlobalQuest> active = new ArrayList<>(activeGlobalQuests);
+                active.addAll(result.discovered());
+                GlobalQuestTemplate template = selectReplacementTemplate(active);
+                if (template != null) {
+                    GlobalQuest replacement = createQuestFromTemplate(template);
+                    writeGlobalQuest(connection, replacement);
+                    result.discovered().add(replacement);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Every contributor's stored total and claim, so claims work for contributions made on other servers
+     */
+    private List<StoredContribution> readContributions(Connection connection, String questId) throws SQLException {
+        List<StoredContribution> contributions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT player_uuid, contribution, claimed FROM global_quest_contributions WHERE quest_id = ?")) {
+            statement.setString(1, questId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    contributions.add(new StoredContribution(UUID.fromString(resultSet.getString("player_uuid")),
+                        resultSet.getLong("contribution"), resultSet.getBoolean("claimed")));
+                }
+            }
+        }
+        return contributions;
+    }
+    
+    private void applyMerge(List<QuestSnapshot> snapshots, MergeResult result) {
+        Map<String, GlobalQuest> questsById = getQuestsById();
+        
+        for (QuestSnapshot snapshot : snapshots) {
+            GlobalQuest quest = questsById.get(snapshot.questId());
+            QuestState state = result.states().get(snapshot.questId());
+            if (quest == null || state == null) {
+                continue;
+            }
+            
+            quest.applyMergedProgress(state.progress(), snapshot.drained());
+            if (state.contributions() != null) {
+                for (StoredContribution contribution : state.contributions()) {
+                    quest.setPlayerContribution(contribution.playerId(), contribution.contribution());
+                    if (contribution.claimed()) {
+                        quest.setPlayerClaimed(contribution.playerId(), true);
+                    }
+                }
+            }
             
-            // Announce the new quest
+            if (state.completed() && handledCompletions.add(quest.getId())) {
+                // Every server tells its own players; only the winner generates the replacement
+                quest.setCompleted(true);
+                announceCompletion(quest);
+                scheduleQuestRetirement(quest);
+            } else if (!state.completed() && quest.advanceMilestone()) {
+                announceMilestone(quest);
+            }
+        }
+        
+        for (GlobalQuest quest : result.discovered()) {
+            if (questsById.containsKey(quest.getId())) {
+                continue;
+            }
+            
+            activeGlobalQuests.add(quest);
             Component announcement = plugin.parseMessage(
                 "<gray>[<gold><bold>New Global Quest!</bold></gold><gray>]<reset> " +
-                "<yellow>" + newQuest.getName() + "<reset> is now available! " +
+                "<yellow>" + quest.getName() + "<reset> is now available! " +
                 "<gray>Use /quests to participate!"
             );
             Bukkit.broadcast(announcement);
         }
+        if (!result.discovered().isEmpty()) {
+            rebuildProgressIndex();
+        }
     }
     
-    private String formatLargeNumber(long number) {
-        if (number >= 1_000_000) {
-            return String.format("%.1fM", number / 1_000_000.0);
-        } else if (number >= 1_000) {
-            return String.format("%.1fK", number / 1_000.0);
+    private Map<String, GlobalQuest> getQuestsById() {
+        Map<String, GlobalQuest> questsById = new HashMap<>();
+        for (GlobalQuest quest : activeGlobalQuests) {
+            questsById.put(quest.getId(), quest);
         }
-        return String.valueOf(number);
+        return questsById;
     }
     
-    private void markQuestCompleted(GlobalQuest quest) {
-        plugin.getDatabaseManager().executeAsync(connection -> {
-            String sql = "UPDATE global_quests SET completed = TRUE, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, quest.getId());
-                statement.executeUpdate();
+    /**
+     * Record a claim unless one is already stored; the conditional UPDATE is what makes a claim
+     * exactly once across servers
+     * @return future with true if this call recorded the claim
+     */
+    private CompletableFuture<Boolean> saveClaim(GlobalQuest quest, UUID playerId) {
+        // The contribution row may not be flushed yet; creating it empty adds nothing to the total
+        String ensureSql = plugin.getDatabaseManager().getDialect().upsert("global_quest_contributions")
+            .keys("quest_id", "player_uuid")
+            .build();
+        String claimSql = """
+            UPDATE global_quest_contributions SET claimed = TRUE
+            WHERE quest_id = ? AND player_uuid = ? AND claimed = FALSE
+        """;
+        
+        AtomicBoolean won = new AtomicBoolean();
+        return plugin.getDatabaseManager().executeAsync(connection -> {
+            try (PreparedStatement ensure = connection.prepareStatement(ensureSql);
+                 PreparedStatement claim = connection.prepareStatement(claimSql)) {
+                ensure.setString(1, quest.getId());
+                ensure.setString(2, playerId.toString());
+                ensure.executeUpdate();
+                
+                claim.setString(1, quest.getId());
+                claim.setString(2, playerId.toString());
+                won.set(claim.executeUpdate() == 1);
             } catch (SQLException e) {
-                plugin.getLogger().warning("Failed to mark global quest as completed " + quest.getId() + ": " + e.getMessage());
+                plugin.getLogger().warning("Failed to save global quest claim " + quest.getId() + ": " + e.getMessage());
+                throw e; // Rolls back this operation's savepoint in the writer batch
             }
-        });
+        }).thenApply(ignored -> won.get());
     }
     
-    private void saveGlobalQuest(GlobalQuest quest) {
-        plugin.getDatabaseManager().executeAsync(connection -> {
-            String sql = """
-                INSERT OR REPLACE INTO global_quests 
-                (id, name, description, type, target, target_amount, current_progress, completed,
-                 display_material, reward_data, player_contributions, player_claimed, updated_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-            """;
+    /**
+     * Load contributions and claims for the active quests only
+     */
+    private void loadContributions(Connection connection) throws SQLException {
+        Map<String, GlobalQuest> questsById = new HashMap<>();
+        for (GlobalQuest quest : activeGlobalQuests) {
+            questsById.put(quest.getId(), quest);
+        }
+        
+        String sql = """
+            SELECT c.quest_id, c.player_uuid, c.contribution, c.claimed
+            FROM global_quest_contributions c
+            JOIN global_quests q ON q.id = c.quest_id
+            WHERE q.completed = FALSE
+        """;
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
             
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, quest.getId());
-                statement.setString(2, quest.getName());
-                statement.setString(3, quest.getDescription());
-                statement.setString(4, quest.getType());
-                statement.setString(5, quest.getTarget());
-                statement.setLong(6, quest.getTargetAmount());
-                statement.setLong(7, quest.getCurrentProgress());
-                statement.setBoolean(8, quest.isCompleted());
-                statement.setString(9, quest.getDisplayMaterial().name());
-                statement.setString(10, gson.toJson(quest.getReward()));
-                statement.setString(11, gson.toJson(quest.getPlayerContributions()));
-                statement.setString(12, gson.toJson(quest.getPlayerClaimed()));
+            while (resultSet.next()) {
+                GlobalQuest quest = questsById.get(resultSet.getString("quest_id"));
+                if (quest == null) {
+                    continue;
+                }
                 
-                statement.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().warning("Failed to save global quest " + quest.getId() + ": " + e.getMessage());
+                UUID playerId = UUID.fromString(resultSet.getString("player_uuid"));
+                long contribution = resultSet.getLong("contribution");
+                if (contribution > 0) {
+                    quest.setPlayerContribution(playerId, contribution);
+                }
+                if (resultSet.getBoolean("claimed")) {
+                    quest.getPlayerClaimed().put(playerId, true);
+                }
             }
-        });
+        }
+    }
+    
+    /**
+     * Move contributions stored as JSON on the quest row into the contributions table
+     */
+    private void migrateLegacyContributions(Connection connection) throws SQLException {
+        List<GlobalQuest> legacyQuests = activeGlobalQuests.stream()
+            .filter(quest -> !quest.getContributors().isEmpty() || !quest.getPlayerClaimed().isEmpty())
+            .toList();
+        
+        if (legacyQuests.isEmpty()) {
+            return;
+        }
+        
+        String insertSql = plugin.getDatabaseManager().getDialect().upsert("global_quest_contributions")
+            .keys("quest_id", "player_uuid")
+            .columns("contribution", "claimed")
+            .build();
+        String clearSql = "UPDATE global_quests SET player_contributions = '{}', player_claimed = '{}' WHERE id = ?";
+        
+        try (PreparedStatement insertStatement = connection.prepareStatement(insertSql);
+             PreparedStatement clearStatement = connection.prepareStatement(clearSql)) {
+            
+            for (GlobalQuest quest : legacyQuests) {
+                Set<UUID> players = new HashSet<>(quest.getContributors());
+                players.addAll(quest.getPlayerClaimed().keySet());
+                
+                for (UUID playerId : players) {
+                    insertStatement.setString(1, quest.getId());
+                    insertStatement.setString(2, playerId.toString());
+                    insertStatement.setLong(3, quest.getPlayerContribution(playerId));
+                    insertStatement.setBoolean(4, quest.hasPlayerClaimed(playerId));
+                    insertStatement.addBatch();
+                }
+                
+                clearStatement.setString(1, quest.getId());
+                clearStatement.addBatch();
+            }
+            
+            insertStatement.executeBatch();
+            clearStatement.executeBatch();
+            plugin.getLogger().info("Migrated contributions of " + legacyQuests.size() + " global quests to the contributions table");
+        }
     }
     
     private GlobalQuest deserializeGlobalQuest(ResultSet resultSet) throws SQLException {
@@ -401,12 +829,12 @@ public class GlobalQuestManager {
             quest.setCurrentProgress(currentProgress);
             quest.setCompleted(completed);
             
-            // Deserialize player contributions
+            // Legacy rows kept contributions as JSON; these are migrated to global_quest_contributions on load
             String contributionsJson = resultSet.getString("player_contributions");
             if (contributionsJson != null && !contributionsJson.equals("{}")) {
                 Map<String, Long> contributions = gson.fromJson(contributionsJson, new TypeToken<Map<String, Long>>(){}.getType());
                 for (Map.Entry<String, Long> entry : contributions.entrySet()) {
-                    quest.getPlayerContributions().put(UUID.fromString(entry.getKey()), entry.getValue());
+                    quest.setPlayerContribution(UUID.fromString(entry.getKey()), entry.getValue());
                 }
             }
             
@@ -427,9 +855,14 @@ public class GlobalQuestManager {
     }
     
     public void cleanup() {
-        // Save all active global quests before shutdown
-        for (GlobalQuest quest : activeGlobalQuests) {
-            saveGlobalQuest(quest);
+        // Write pending progress synchronously before the writer closes
+        List<QuestSnapshot> snapshots = collectSnapshots();
+        if (!snapshots.isEmpty()) {
+            try {
+                plugin.getDatabaseManager().executeWrite(connection -> writeProgress(connection, snapshots, new MergeResult(new HashMap<>(), new ArrayList<>())));
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to flush global quest progress on shutdown: " + e.getMessage());
+            }
         }
         
         // Cancel all pending refill tasks
@@ -441,6 +874,17 @@ public class GlobalQuestManager {
         refillTasks.clear();
     }
 
+    // Deltas captured on the main thread for a merge; drained is the local progress the merged total will include
+    private record QuestSnapshot(String questId, long progressDelta, long drained, boolean completionKnown,
+                                 GlobalQuest.ContributionDeltas contributionDeltas) {}
+
+    // Shared state read back by a merge; contributions are only read once a quest completes
+    private record QuestState(long progress, boolean completed, List<StoredContribution> contributions) {}
+
+    private record StoredContribution(UUID playerId, long contribution, boolean claimed) {}
+
+    private record MergeResult(Map<String, QuestState> states, List<GlobalQuest> discovered) {}
+
     private static class GlobalQuestTemplate {
         String type;
         String target;
@@ -0,0 +1,227 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.config.ConfigManager;
+import com.ryzz3nn.woidzquests.models.PlayerData;
+import com.ryzz3nn.woidzquests.network.HandoffChannel;
+import com.ryzz3nn.woidzquests.network.HandoffMessage;
+import com.ryzz3nn.woidzquests.network.LoopbackHandoffChannel;
+import com.ryzz3nn.woidzquests.network.ProxyHandoffChannel;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps a player's cached data coherent when they move between servers sharing one database.
+ * The server a player leaves writes their data, stops writing it and announces the committed version;
+ * the server they join waits for that announcement while the player logs in, before reading the data.
+ * Player data writes are version checked, so a server that missed a handoff cannot overwrite newer data.
+ */
+public class HandoffManager {
+    
+    private final WoidZQuests plugin;
+    private final HandoffChannel channel; // null when handoff is disabled (single server)
+    private final String serverName;
+    private final long timeoutMillis;
+    
+    // Server currently holding each player, learned from CLAIM messages
+    private final Map<UUID, String> remoteOwners = new ConcurrentHashMap<>();
+    
+    // Logins waiting for the previous server to release the player, completed with the released version
+    private final Map<UUID, CompletableFuture<Long>> pendingReleases = new ConcurrentHashMap<>();
+    
+    // Players still connected here whose data has been handed to the server they are moving to, by that server
+    private final Map<UUID, String> handedOver = new ConcurrentHashMap<>();
+    
+    public HandoffManager(WoidZQuests plugin) {
+        this.plugin = plugin;
+        
+        ConfigManager config = plugin.getConfigManager();
+        this.serverName = config.getString("handoff.server-id", config.getServerName());
+        this.timeoutMillis = Math.max(0, config.getLong("handoff.timeout-ms", 3000L));
+        this.channel = config.getBoolean("handoff.enabled", false) ? createChannel(config.getString("handoff.channel", "proxy")) : null;
+        
+        if (channel != null) {
+            channel.subscribe(this::onMessage);
+            plugin.getLogger().info("Player handoff enabled as '" + serverName + "'");
+        }
+    }
+    
+    private HandoffChannel createChannel(String type) {
+        return switch (type.toLowerCase()) {
+            case "loopback" -> new LoopbackHandoffChannel("default");
+            case "proxy" -> new ProxyHandoffChannel(plugin);
+            default -> {
+                plugin.getLogger().warning("Unknown handoff channel '" + type + "', using proxy");
+                yield new ProxyHandoffChannel(plugin);
+            }
+        };
+    }
+    
+    /**
+     * Wait until the server that last held the player has released them. Blocks the calling (login) thread.
+     * @return the data version the previous server committed, or 0 if there was nothing to wait for
+     */
+    public long awaitRelease(UUID uuid) {
+        String owner = remoteOwners.get(uuid);
+        if (channel == null || owner == null) {
+            return 0;
+        }
+        
+        CompletableFuture<Long> release = pendingReleases.computeIfAbsent(uuid, k -> new CompletableFuture<>());
+        channel.publish(new HandoffMessage(HandoffMessage.Type.REQUEST, uuid, serverName, 0));
+        try {
+            return release.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Lost message or crashed server; the version check still guards against stale writes
+            remoteOwners.remove(uuid, owner);
+            plugin.getLogger().warning("No handoff from " + owner + " for " + uuid + " within " + timeoutMillis + "ms, using stored data");
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            return 0;
+        } finally {
+            pendingReleases.remove(uuid, release);
+        }
+    }
+    
+    /**
+     * Announce that this server now holds the player (join, main thread)
+     */
+    public void claim(UUID uuid, long version) {
+        handedOver.remove(uuid);
+        remoteOwners.remove(uuid);
+        publish(HandoffMessage.Type.CLAIM, uuid, version);
+    }
+    
+    /**
+     * Write the data of a player leaving this server, then drop it from memory and announce the
+     * committed version (quit, main thread)
+     */
+    public void release(UUID uuid) {
+        // Already handed over while the proxy moved the player; nothing here is current any more
+        if (handedOver.remove(uuid) != null) {
+            plugin.getPlayerSessionManager().evict(uuid);
+            return;
+        }
+        
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerDataCache().get(uuid);
+        if (playerData == null) {
+            plugin.getPlayerSessionManager().evict(uuid);
+            return;
+        }
+        
+        flush(uuid, playerData).whenComplete((ignored, error) -> runOnMainThread(() -> {
+            if (error != null) {
+                plugin.getLogger().warning("Releasing " + uuid + " before their data was fully written: " + error.getMessage());
+            }
+            
+            // A player who came straight back keeps using the cached copy
+            plugin.getPlayerSessionManager().evict(uuid);
+            publish(HandoffMessage.Type.RELEASED, uuid, playerData.getVersion());
+        }));
+    }
+    
+    /**
+     * Whether writes for this player must be skipped because another server holds their data
+     */
+    public boolean isHandedOver(UUID uuid) {
+        return handedOver.containsKey(uuid);
+    }
+    
+    private CompletableFuture<Void> flush(UUID uuid, PlayerData playerData) {
+        return CompletableFuture.allOf(
+            plugin.getPlayerDataManager().savePlayerData(playerData),
+            plugin.getDailyQuestManager().flushPlayer(uuid),
+            plugin.getWeeklyQuestManager().flushPlayer(uuid)
+        );
+    }
+    
+    private void onMessage(HandoffMessage message) {
+        if (message.server().equals(serverName)) {
+            return;
+        }
+        
+        UUID uuid = message.playerId();
+        switch (message.type()) {
+            case CLAIM -> {
+                remoteOwners.put(uuid, message.server());
+                // A copy still cached here from an earlier visit is stale from now on
+                runOnMainThread(() -> plugin.getPlayerSessionManager().evict(uuid));
+            }
+            case REQUEST -> runOnMainThread(() -> handleRequest(uuid, message.server()));
+            case RELEASED -> {
+                remoteOwners.remove(uuid, message.server());
+                CompletableFuture<Long> release = pendingReleases.get(uuid);
+                if (release != null) {
+                    release.complete(message.version());
+                }
+            }
+        }
+    }
+    
+    private void handleRequest(UUID uuid, String target) {
+        // Offline players are either unknown here or already being released on quit
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerDataCache().get(uuid);
+        if (playerData == null || plugin.getServer().getPlayer(uuid) == null || handedOver.containsKey(uuid)) {
+            return;
+        }
+        
+        // Proxies log the player into the next server before disconnecting them here, so hand the
+        // data over now and stop writing it; progress made in the remaining moments is dropped
+        CompletableFuture<Void> flushed = flush(uuid, playerData);
+        handedOver.put(uuid, target);
+        flushed.whenComplete((ignored, error) -> {
+            publish(HandoffMessage.Type.RELEASED, uuid, playerData.getVersion());
+            runOnMainThread(() -> plugin.getServer().getScheduler().runTaskLater(plugin,
+                () -> resumeIfUnclaimed(uuid, target), Math.max(1, timeoutMillis / 50)));
+        });
+    }
+    
+    /**
+     * Take the player back if the server they were handed to never claimed them, e.g. the proxy
+     * transfer was denied or cancelled and they are still playing here
+     */
+    private void resumeIfUnclaimed(UUID uuid, String target) {
+        if (target.equals(remoteOwners.get(uuid)) || plugin.getServer().getPlayer(uuid) == null
+                || !handedOver.remove(uuid, target)) {
+            return;
+        }
+        
+        plugin.getLogger().warning("No claim from " + target + " for " + uuid + " within " + timeoutMillis
+            + "ms of the handoff, resuming writes here");
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerDataCache().get(uuid);
+        if (playerData != null) {
+            // Rejected as stale if the other server did write, and then rebased onto its row
+            flush(uuid, playerData);
+        }
+    }
+    
+    private void publish(HandoffMessage.Type type, UUID uuid, long version) {
+        if (channel != null) {
+            channel.publish(new HandoffMessage(type, uuid, serverName, version));
+        }
+    }
+    
+    private void runOnMainThread(Runnable task) {
+        if (plugin.getServer().isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+    
+    public void close() {
+        if (channel != null) {
+            channel.close();
+        }
+        pendingReleases.values().forEach(release -> release.complete(0L));
+    }
+}
@@ -0,0 +1,548 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import com.ryzz3nn.woidzquests.WoidZQuests;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Anti-cheese tracking of player-placed blocks.
+ * Placements for every loaded chunk are mirrored in memory so block breaks never wait on the database;
+ * a chunk's stored placements are read asynchronously when it loads and dropped when it unloads.
+ * Placements and removals are buffered per position, so repeated changes to the same block
+ * collapse into one row change, and written in a single transaction on an interval or once the
+ * buffer fills up. All in-memory state is owned by the main thread.
+ * <p>
+ * Rows are stored in one table per hour of placement (placed_blocks_&lt;hour&gt;), so expiry drops
+ * whole tables instead of range-deleting a single large one.
+ */
+public class PlacedBlockManager {
+    
+    private static final long BUCKET_MS = 60 * 60 * 1000L;
+    private static final String BUCKET_PREFIX = "placed_blocks_";
+    
+    private final WoidZQuests plugin;
+    private final NavigableSet<Long> buckets = new ConcurrentSkipListSet<>(); // Hour buckets that have a table
+    private final Map<String, Map<Long, ChunkPlacedBlocks>> loadedChunks = new HashMap<>();
+    private Map<BlockPosition, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private Map<BlockPosition, PendingWrite> inFlightWrites = Collections.emptyMap(); // Handed to the writer, not yet committed
+    
+    public PlacedBlockManager(WoidZQuests plugin) {
+        this.plugin = plugin;
+        initializeBuckets();
+        startWriteFlusher();
+        
+        // Chunks loaded before the plugin enabled (spawn areas) never fire a load event for us
+        if (isEnabled()) {
+            for (World world : Bukkit.getWorlds()) {
+                for (Chunk chunk : world.getLoadedChunks()) {
+                    loadChunk(chunk);
+                }
+            }
+        }
+    }
+    
+    public boolean isEnabled() {
+        return plugin.getConfigManager().getBoolean("quests.anti-cheese.track-placed-blocks", true);
+    }
+    
+    /**
+     * Check if a block was placed by a player within the tracking duration
+     */
+    public boolean isPlayerPlaced(Block block) {
+        if (!isEnabled()) {
+            return false;
+        }
+        
+        ChunkPlacedBlocks placedBlocks = getChunk(block.getWorld().getName(), block.getX() >> 4, block.getZ() >> 4);
+        if (placedBlocks == null) {
+            return false;
+        }
+        
+        int key = ChunkPlacedBlocks.pack(block.getX(), block.getY(), block.getZ());
+        long placedAt = placedBlocks.get(key);
+        if (placedAt == 0L) {
+            return false;
+        }
+        
+        if (System.currentTimeMillis() - placedAt < getTrackingDurationMs()) {
+            // Block is tracked and still within tracking duration
+            return true;
+        }
+        
+        // Block is old enough to be considered "natural" again
+        placedBlocks.remove(key);
+        queueWrite(block, PendingWrite.REMOVAL);
+        return false;
+    }
+    
+    public void trackPlacedBlock(Block block, Player player) {
+        if (!isEnabled()) {
+            return;
+        }
+        
+        long placedAt = System.currentTimeMillis();
+        loadedChunks.computeIfAbsent(block.getWorld().getName(), k -> new HashMap<>())
+            .computeIfAbsent(chunkKey(block.getX() >> 4, block.getZ() >> 4), k -> new ChunkPlacedBlocks())
+            .put(ChunkPlacedBlocks.pack(block.getX(), block.getY(), block.getZ()), placedAt);
+        
+        queueWrite(block, new PendingWrite(block.getType().name(), player.getUniqueId().toString(), placedAt));
+    }
+    
+    /**
+     * Forget a placed block that was broken
+     */
+    public void untrackBlock(Block block) {
+        if (!isEnabled()) {
+            return;
+        }
+        
+        ChunkPlacedBlocks placedBlocks = getChunk(block.getWorld().getName(), block.getX() >> 4, block.getZ() >> 4);
+        if (placedBlocks != null) {
+            placedBlocks.remove(ChunkPlacedBlocks.pack(block.getX(), block.getY(), block.getZ()));
+        }
+        
+        queueWrite(block, PendingWrite.REMOVAL);
+    }
+    
+    /**
+     * Number of position changes waiting to be written
+     */
+    public int getPendingWriteCount() {
+        return pendingWrites.size() + inFlightWrites.size();
+    }
+    
+    /**
+     * Start tracking a chunk and read its stored placements off the main thread
+     */
+    public void loadChunk(Chunk chunk) {
+        if (!isEnabled()) {
+            return;
+        }
+        
+        String world = chunk.getWorld().getName();
+        int chunkX = chunk.getX();
+        int chunkZ = chunk.getZ();
+        ChunkPlacedBlocks placedBlocks = loadedChunks.computeIfAbsent(world, k -> new HashMap<>())
+            .computeIfAbsent(chunkKey(chunkX, chunkZ), k -> new ChunkPlacedBlocks());
+        // Placements from before an unload may not be written yet, so the read below would miss them
+        restoreUnwrittenPlacements(world, chunkX, chunkZ, placedBlocks);
+        long cutoff = System.currentTimeMillis() - getTrackingDurationMs();
+        List<Long> liveBuckets = new ArrayList<>(buckets.tailSet(cutoff / BUCKET_MS, true));
+        if (liveBuckets.isEmpty()) {
+            return;
+        }
+        
+        plugin.getDatabaseManager().queryAsync(connection -> {
+            List<Long> readBuckets = liveBuckets;
+            while (true) {
+                try {
+                    return readChunk(connection, world, chunkX, chunkZ, cutoff, readBuckets);
+                } catch (SQLException e) {
+                    // A bucket that expired after this read was planned may have been dropped meanwhile;
+                    // read again from the tables that are still there
+                    List<Long> remaining = readBuckets.stream().filter(buckets::contains).toList();
+                    if (remaining.size() == readBuckets.size()) {
+                        plugin.getLogger().warning("Failed to load placed blocks for chunk " + chunkX + "," + chunkZ + ": " + e.getMessage());
+                        return null;
+                    }
+                    readBuckets = remaining;
+                }
+            }
+        }).thenAccept(stored -> {
+            if (stored == null || stored.isEmpty() || !plugin.isEnabled()) {
+                return;
+            }
+            
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // Skip if the chunk unloaded (or reloaded) while we were reading
+                if (getChunk(world, chunkX, chunkZ) != placedBlocks) {
+                    return;
+                }
+                // Placements made while loading are newer than anything stored, and
+                // removals not yet written must not be brought back
+                stored.forEach((key, placedAt) -> {
+                    BlockPosition position = new BlockPosition(world, (chunkX << 4) | (key & 15), key >> 8, (chunkZ << 4) | ((key >> 4) & 15));
+                    if (!isPendingRemoval(position)) {
+                        placedBlocks.putIfAbsent(key, placedAt);
+                    }
+                });
+            });
+        });
+    }
+    
+    private void restoreUnwrittenPlacements(String world, int chunkX, int chunkZ, ChunkPlacedBlocks placedBlocks) {
+        for (Map.Entry<BlockPosition, PendingWrite> entry : inFlightWrites.entrySet()) {
+            // A buffered change to the same position is newer
+            if (!pendingWrites.containsKey(entry.getKey())) {
+                restoreUnwrittenPlacement(world, chunkX, chunkZ, entry.getKey(), entry.getValue(), placedBlocks);
+            }
+        }
+        for (Map.Entry<BlockPosition, PendingWrite> entry : pendingWrites.entrySet()) {
+            restoreUnwrittenPlacement(world, chunkX, chunkZ, entry.getKey(), entry.getValue(), placedBlocks);
+        }
+    }
+    
+    private void restoreUnwrittenPlacement(String world, int chunkX, int chunkZ, BlockPosition position, PendingWrite write,
+                                           ChunkPlacedBlocks placedBlocks) {
+        if (!write.isRemoval() && (position.x() >> 4) == chunkX && (position.z() >> 4) == chunkZ && position.world().equals(world)) {
+            placedBlocks.put(ChunkPlacedBlocks.pack(position.x(), position.y(), position.z()), write.placedAt());
+        }
+    }
+    
+    private ChunkPlacedBlocks readChunk(Connection connection, String world, int chunkX, int chunkZ, long cutoff,
+                                        List<Long> liveBuckets) throws SQLException {
+        ChunkPlacedBlocks stored = new ChunkPlacedBlocks();
+        if (liveBuckets.isEmpty()) {
+            return stored;
+        }
+        
+        List<String> selects = new ArrayList<>();
+        for (long bucket : liveBuckets) {
+            selects.add("SELECT x, y, z, placed_at FROM " + BUCKET_PREFIX + bucket +
+                " WHERE world = ? AND x BETWEEN ? AND ? AND z BETWEEN ? AND ? AND placed_at >= ?");
+        }
+        String sql = String.join(" UNION ALL ", selects);
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int i = 0; i < liveBuckets.size(); i++) {
+                statement.setString(index++, world);
+                statement.setInt(index++, chunkX << 4);
+                statement.setInt(index++, (chunkX << 4) + 15);
+                statement.setInt(index++, chunkZ << 4);
+                statement.setInt(index++, (chunkZ << 4) + 15);
+                statement.setLong(index++, cutoff);
+            }
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    // A position can appear in several buckets if it was re-placed; the newest wins
+                    int key = ChunkPlacedBlocks.pack(resultSet.getInt("x"), resultSet.getInt("y"), resultSet.getInt("z"));
+                    long placedAt = resultSet.getLong("placed_at");
+                    if (placedAt > stored.get(key)) {
+                        stored.put(key, placedAt);
+                    }
+                }
+            }
+        }
+        return stored;
+    }
+    
+    /**
+     * Stop tracking a chunk; its buffered changes stay queued for the next flush
+     */
+    public void unloadChunk(Chunk chunk) {
+        Map<Long, ChunkPlacedBlocks> worldChunks = loadedChunks.get(chunk.getWorld().getName());
+        if (worldChunks != null) {
+            worldChunks.remove(chunkKey(chunk.getX(), chunk.getZ()));
+        }
+    }
+    
+    public void unloadWorld(World world) {
+        loadedChunks.remove(world.getName());
+    }
+    
+    private void queueWrite(Block block, PendingWrite write) {
+        // A newer change to the same position replaces the older one
+        pendingWrites.put(new BlockPosition(block.getWorld().getName(), block.getX(), block.getY(), block.getZ()), write);
+        
+        if (pendingWrites.size() >= plugin.getConfigManager().getInt("quests.anti-cheese.write-batch-size", 500)) {
+            flushWrites();
+        }
+    }
+    
+    private boolean isPendingRemoval(BlockPosition position) {
+        PendingWrite write = pendingWrites.get(position);
+        if (write == null) {
+            write = inFlightWrites.get(position);
+        }
+        return write != null && write.isRemoval();
+    }
+    
+    private void startWriteFlusher() {
+        long intervalTicks = Math.max(1, plugin.getConfigManager().getInt("quests.anti-cheese.write-flush-interval", 5)) * 20L;
+        
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushWrites();
+            }
+        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+    }
+    
+    /**
+     * Hand every buffered change to the database in one transaction
+     */
+    public void flushWrites() {
+        if (pendingWrites.isEmpty() || !inFlightWrites.isEmpty()) {
+            // Wait for the previous batch so writes for a position stay in order
+            return;
+        }
+        
+        Map<BlockPosition, PendingWrite> batch = pendingWrites;
+        pendingWrites = new LinkedHashMap<>();
+        inFlightWrites = batch;
+        
+        List<Long> createdBuckets = new ArrayList<>();
+        plugin.getDatabaseManager().executeAsync(connection -> writeChanges(connection, batch, createdBuckets)).whenComplete((result, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("Failed to write " + batch.size() + " placed block changes: " + error.getMessage());
+            } else {
+                // Readers only see new tables once they are committed
+                buckets.addAll(createdBuckets);
+            }
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> inFlightWrites = Collections.emptyMap());
+            }
+        });
+    }
+    
+    /**
+     * Write everything still buffered before the database writer closes
+     */
+    public void shutdown() {
+        Map<BlockPosition, PendingWrite> batch = new LinkedHashMap<>(inFlightWrites);
+        batch.putAll(pendingWrites);
+        pendingWrites = new LinkedHashMap<>();
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try {
+            plugin.getDatabaseManager().executeWrite(connection -> writeChanges(connection, batch, new ArrayList<>()));
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to write placed block changes on shutdown: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Apply buffered changes on the writer connection, which commits them together
+     * @param createdBuckets filled with the buckets whose tables this write created
+     */
+    private void writeChanges(Connection connection, Map<BlockPosition, PendingWrite> changes, List<Long> createdBuckets) throws SQLException {
+        Map<Long, PreparedStatement> upsertStatements = new HashMap<>();
+        Map<Long, PreparedStatement> deleteStatements = new HashMap<>();
+        try {
+            for (Map.Entry<BlockPosition, PendingWrite> entry : changes.entrySet()) {
+                BlockPosition position = entry.getKey();
+                PendingWrite write = entry.getValue();
+                
+                if (write.isRemoval()) {
+                    // The position may have been stored in any bucket that is still around
+                    for (long bucket : buckets) {
+                        PreparedStatement statement = deleteStatements.get(bucket);
+                        if (statement == null) {
+                            statement = connection.prepareStatement("DELETE FROM " + BUCKET_PREFIX + bucket +
+                                " WHERE world = ? AND x = ? AND y = ? AND z = ?");
+                            deleteStatements.put(bucket, statement);
+                        }
+                        
+                        statement.setString(1, position.world());
+                        statement.setInt(2, position.x());
+                        statement.setInt(3, position.y());
+                        statement.setInt(4, position.z());
+                        statement.addBatch();
+                    }
+                } else {
+                    long bucket = write.placedAt() / BUCKET_MS;
+                    PreparedStatement statement = upsertStatements.get(bucket);
+                    if (statement == null) {
+                        if (createBucket(connection, bucket)) {
+                            createdBuckets.add(bucket);
+                        }
+                        statement = connection.prepareStatement(plugin.getDatabaseManager().getDialect().upsert(BUCKET_PREFIX + bucket)
+                            .keys("world", "x", "y", "z")
+                            .columns("material", "player_uuid", "placed_at")
+                            .build());
+                        upsertStatements.put(bucket, statement);
+                    }
+                    
+                    statement.setString(1, position.world());
+                    statement.setInt(2, position.x());
+                    statement.setInt(3, position.y());
+                    statement.setInt(4, position.z());
+                    statement.setString(5, write.material());
+                    statement.setString(6, write.playerId());
+                    statement.setLong(7, write.placedAt());
+                    statement.addBatch();
+                }
+            }
+            
+            for (PreparedStatement statement : deleteStatements.values()) {
+                statement.executeBatch();
+            }
+            for (PreparedStatement statement : upsertStatements.values()) {
+                statement.executeBatch();
+            }
+        } finally {
+            for (PreparedStatement statement : deleteStatements.values()) {
+                statement.close();
+            }
+            for (PreparedStatement statement : upsertStatements.values()) {
+                statement.close();
+            }
+        }
+    }
+    
+    /**
+     * Create the table for an hour bucket if we have not seen it yet
+     * @return true if the bucket was not known before
+     */
+    private boolean createBucket(Connection connection, long bucket) throws SQLException {
+        if (buckets.contains(bucket)) {
+            return false;
+        }
+        
+        String sql = """
+            CREATE TABLE IF NOT EXISTS %s (
+                world VARCHAR(64) NOT NULL,
+                x INTEGER NOT NULL,
+                y INTEGER NOT NULL,
+                z INTEGER NOT NULL,
+                material VARCHAR(64) NOT NULL,
+                player_uuid VARCHAR(36) NOT NULL,
+                placed_at BIGINT NOT NULL,
+                PRIMARY KEY (world, x, y, z)
+            )
+        """.formatted(BUCKET_PREFIX + bucket);
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+        return true;
+    }
+    
+    /**
+     * Find the existing bucket tables and move rows from the old single placed_blocks table into them
+     */
+    private void initializeBuckets() {
+        try (Connection connection = plugin.getDatabaseManager().getConnection()) {
+            boolean hasLegacyTable = false;
+            for (String name : plugin.getDatabaseManager().listTables(connection)) {
+                if (name.equals("placed_blocks")) {
+                    hasLegacyTable = true;
+                } else if (name.startsWith(BUCKET_PREFIX)) {
+                    try {
+                        buckets.add(Long.parseLong(name.substring(BUCKET_PREFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                        // Not one of our bucket tables
+                    }
+                }
+            }
+            
+            if (hasLegacyTable) {
+                List<Long> migratedBuckets = new ArrayList<>();
+                plugin.getDatabaseManager().executeWrite(writer -> migrateLegacyTable(writer, migratedBuckets));
+                buckets.addAll(migratedBuckets);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("[Anti-Cheese] Failed to initialize placed block storage: " + e.getMessage());
+        }
+    }
+    
+    // The single placed_blocks table only ever existed in SQLite databases
+    private void migrateLegacyTable(Connection connection, List<Long> migratedBuckets) throws SQLException {
+        long cutoff = System.currentTimeMillis() - getTrackingDurationMs();
+        List<Long> legacyBuckets = new ArrayList<>();
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT DISTINCT placed_at / ? AS bucket FROM placed_blocks WHERE placed_at >= ?")) {
+            statement.setLong(1, BUCKET_MS);
+            statement.setLong(2, cutoff);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    legacyBuckets.add(resultSet.getLong("bucket"));
+                }
+            }
+        }
+        
+        for (long bucket : legacyBuckets) {
+            if (createBucket(connection, bucket)) {
+                migratedBuckets.add(bucket);
+            }
+            try (PreparedStatement statement = connection.prepareStatement("INSERT OR REPLACE INTO " + BUCKET_PREFIX + bucket +
+                    " SELECT world, x, y, z, material, player_uuid, placed_at FROM placed_blocks WHERE placed_at >= ? AND placed_at < ?")) {
+                statement.setLong(1, Math.max(cutoff, bucket * BUCKET_MS));
+                statement.setLong(2, (bucket + 1) * BUCKET_MS);
+                statement.executeUpdate();
+            }
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement("DROP TABLE placed_blocks")) {
+            statement.executeUpdate();
+        }
+        plugin.getLogger().info("[Anti-Cheese] Moved placed blocks into " + legacyBuckets.size() + " hourly tables");
+    }
+    
+    /**
+     * Drop every hourly table whose placements are all past the tracking duration.
+     * Waits for the database writer, so call it off the main thread.
+     */
+    public void dropExpiredBuckets() {
+        long cutoff = System.currentTimeMillis() - getTrackingDurationMs();
+        // Buckets ending at or before the cutoff hold nothing that is still tracked
+        List<Long> expired = new ArrayList<>(buckets.headSet(cutoff / BUCKET_MS, false));
+        if (expired.isEmpty()) {
+            return;
+        }
+        
+        // Stop new chunk reads from selecting these tables before they go away
+        buckets.removeAll(expired);
+        try {
+            plugin.getDatabaseManager().executeWrite(connection -> {
+                for (long bucket : expired) {
+                    try (PreparedStatement statement = connection.prepareStatement("DROP TABLE IF EXISTS " + BUCKET_PREFIX + bucket)) {
+                        statement.executeUpdate();
+                    }
+                }
+            });
+            plugin.getLogger().info("[Anti-Cheese] Dropped " + expired.size() + " expired placed block tables");
+        } catch (SQLException e) {
+            // Keep them known so the next run tries again instead of leaving orphaned tables
+            buckets.addAll(expired);
+            plugin.getLogger().warning("[Anti-Cheese] Failed to drop expired placed block tables: " + e.getMessage());
+        }
+    }
+    
+    private ChunkPlacedBlocks getChunk(String world, int chunkX, int chunkZ) {
+        Map<Long, ChunkPlacedBlocks> worldChunks = loadedChunks.get(world);
+        return worldChunks != null ? worldChunks.get(chunkKey(chunkX, chunkZ)) : null;
+    }
+    
+    private long getTrackingDurationMs() {
+        return plugin.getConfigManager().getInt("quests.anti-cheese.tracking-duration-hours", 24) * 60 * 60 * 1000L;
+    }
+    
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+    
+    private record BlockPosition(String world, int x, int y, int z) {}
+    
+    // A buffered row change; a null material means the row should be deleted
+    private record PendingWrite(String material, String playerId, long placedAt) {
+        
+        static final PendingWrite REMOVAL = new PendingWrite(null, null, 0L);
+        
+        boolean isRemoval() {
+            return material == null;
+        }
+    }
+}
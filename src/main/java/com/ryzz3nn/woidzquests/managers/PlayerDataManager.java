@@ -11,12 +11,20 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 @Getter
@@ -26,6 +34,8 @@ public class PlayerDataManager {
     private final DatabaseManager databaseManager;
     private final Gson gson;
     private final Map<UUID, PlayerData> playerDataCache;
+    // Last queued save of each player, so the next one starts from the version that save commits
+    private final Map<UUID, CompletableFuture<Void>> pendingSaves = new ConcurrentHashMap<>();
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
     public PlayerDataManager(WoidZQuests plugin) {
@@ -36,43 +46,16 @@ public class PlayerDataManager {
     }
     
     public PlayerData getPlayerData(UUID uuid) {
+        plugin.getPlayerSessionManager().touch(uuid);
         return playerDataCache.computeIfAbsent(uuid, this::loadPlayerData);
     }
     
     public PlayerData loadPlayerData(UUID uuid) {
         try (Connection connection = databaseManager.getConnection()) {
-            String sql = """
-                SELECT uuid, username, quest_points, daily_rerolls, weekly_rerolls,
-                       last_daily_reset, last_weekly_reset, total_quests_completed,
-                       join_date, last_seen
-                FROM player_data WHERE uuid = ?
-            """;
-            
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        return PlayerData.builder()
-                            .uuid(uuid)
-                            .username(resultSet.getString("username"))
-                            .questPoints(resultSet.getInt("quest_points"))
-                            .dailyRerolls(resultSet.getInt("daily_rerolls"))
-                            .weeklyRerolls(resultSet.getInt("weekly_rerolls"))
-                            .lastDailyReset(parseDateTime(resultSet.getString("last_daily_reset")))
-                            .lastWeeklyReset(parseDateTime(resultSet.getString("last_weekly_reset")))
-                            .totalQuestsCompleted(resultSet.getInt("total_quests_completed"))
-                            .joinDate(parseDateTime(resultSet.getString("join_date")))
-                            .lastSeen(parseDateTime(resultSet.getString("last_seen")))
-                            .statistics(loadPlayerStatistics(uuid))
-                            .settings(new HashMap<>())
-                            .build();
-                    }
-                }
-            }
+            PlayerData playerData = readPlayerData(connection, uuid);
             
             // Create new player data if not found
-            return createNewPlayerData(uuid);
+            return playerData != null ? playerData : createNewPlayerData(uuid);
             
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to load player data for " + uuid, e);
@@ -80,6 +63,60 @@ public class PlayerDataManager {
         }
     }
     
+    /**
+     * Read a player's row and statistics on the given connection
+     * @return null if the player has no stored data yet
+     */
+    public PlayerData readPlayerData(Connection connection, UUID uuid) throws SQLException {
+        String sql = """
+            SELECT uuid, username, quest_points, daily_rerolls, weekly_rerolls,
+                   last_daily_reset, last_weekly_reset, total_quests_completed,
+                   join_date, last_seen, data_version
+            FROM player_data WHERE uuid = ?
+        """;
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, uuid.toString());
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                
+                PlayerData playerData = PlayerData.builder()
+                    .uuid(uuid)
+                    .username(resultSet.getString("username"))
+                    .questPoints(resultSet.getInt("quest_points"))
+                    .dailyRerolls(resultSet.getInt("daily_rerolls"))
+                    .weeklyRerolls(resultSet.getInt("weekly_rerolls"))
+                    .lastDailyReset(parseDateTime(resultSet.getString("last_daily_reset")))
+                    .lastWeeklyReset(parseDateTime(resultSet.getString("last_weekly_reset")))
+                    .totalQuestsCompleted(resultSet.getInt("total_quests_completed"))
+                    .joinDate(parseDateTime(resultSet.getString("join_date")))
+                    .lastSeen(parseDateTime(resultSet.getString("last_seen")))
+                    .version(resultSet.getLong("data_version"))
+                    .statistics(readPlayerStatistics(connection, uuid))
+                    .settings(new HashMap<>())
+                    .build();
+                playerData.setStoredState(playerData.snapshot());
+                return playerData;
+            }
+        }
+    }
+    
+    /**
+     * Cache preloaded player data, keeping an instance still cached from a recent session unless
+     * another server has written a newer version since
+     */
+    public PlayerData attachPlayerData(UUID uuid, PlayerData playerData) {
+        return playerDataCache.compute(uuid, (k, cached) -> {
+            if (playerData == null) {
+                return cached != null ? cached : createNewPlayerData(uuid);
+            }
+            return cached != null && cached.getVersion() >= playerData.getVersion() ? cached : playerData;
+        });
+    }
+    
     private PlayerData createNewPlayerData(UUID uuid) {
         LocalDateTime now = LocalDateTime.now();
         return PlayerData.builder()
@@ -93,75 +130,195 @@ public class PlayerDataManager {
             .totalQuestsCompleted(0)
             .joinDate(now)
             .lastSeen(now)
-            .statistics(new HashMap<>())
+            .statistics(new ConcurrentHashMap<>())
             .settings(new HashMap<>())
             .build();
     }
     
-    public void savePlayerData(PlayerData playerData) {
-        databaseManager.executeAsync(connection -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_data 
-                (uuid, username, quest_points, daily_rerolls, weekly_rerolls,
-                 last_daily_reset, last_weekly_reset, total_quests_completed,
-                 join_date, last_seen, updated_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-            """;
-            
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerData.getUuid().toString());
-                statement.setString(2, playerData.getUsername());
-                statement.setInt(3, playerData.getQuestPoints());
-                statement.setInt(4, playerData.getDailyRerolls());
-                statement.setInt(5, playerData.getWeeklyRerolls());
-                statement.setString(6, formatDateTime(playerData.getLastDailyReset()));
-                statement.setString(7, formatDateTime(playerData.getLastWeeklyReset()));
-                statement.setInt(8, playerData.getTotalQuestsCompleted());
-                statement.setString(9, formatDateTime(playerData.getJoinDate()));
-                statement.setString(10, formatDateTime(playerData.getLastSeen()));
-                
-                statement.executeUpdate();
-                
-                // Save statistics
-                savePlayerStatistics(playerData.getUuid(), playerData.getStatistics());
-                
+    /**
+     * Queue a save of the player's row and statistics. Saves of one player run one after another, since
+     * each writes against the version the previous one committed.
+     * @return future completing once the write (or its rebased retry) has committed
+     */
+    public CompletableFuture<Void> savePlayerData(PlayerData playerData) {
+        UUID uuid = playerData.getUuid();
+        // Another server holds this player now; its copy is the one to keep
+        if (plugin.getHandoffManager().isHandedOver(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        CompletableFuture<Void> saved = pendingSaves.compute(uuid, (k, previous) -> previous == null || previous.isDone()
+            ? writePlayerDataAsync(playerData)
+            : previous.handle((ignored, error) -> null).thenCompose(ignored -> writePlayerDataAsync(playerData)));
+        saved.whenComplete((ignored, error) -> pendingSaves.remove(uuid, saved));
+        return saved;
+    }
+    
+    /**
+     * Write the player on the writer thread. The version and stored state advance only once the write has
+     * committed; a write rejected as stale is rebased onto the stored row on the main thread and written again.
+     */
+    private CompletableFuture<Void> writePlayerDataAsync(PlayerData playerData) {
+        AtomicReference<PlayerData.Snapshot> written = new AtomicReference<>();
+        AtomicReference<PlayerData> newerRow = new AtomicReference<>();
+        long expectedVersion = playerData.getVersion();
+        return databaseManager.executeAsync(connection -> {
+            try {
+                PlayerData.Snapshot snapshot = playerData.snapshot();
+                if (writePlayerData(connection, playerData, expectedVersion, snapshot)) {
+                    written.set(snapshot);
+                } else {
+                    newerRow.set(readPlayerData(connection, playerData.getUuid()));
+                }
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + playerData.getUuid(), e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
+            }
+        }).thenCompose(ignored -> {
+            if (newerRow.get() != null) {
+                return rebaseAndSave(playerData, newerRow.get());
             }
+            if (written.get() != null) {
+                playerData.markStored(expectedVersion + 1, written.get());
+            }
+            return CompletableFuture.completedFuture(null);
         });
     }
     
-    private Map<String, Integer> loadPlayerStatistics(UUID uuid) {
-        Map<String, Integer> statistics = new HashMap<>();
+    /**
+     * Rebase on the main thread, which is where the copy is otherwise changed, then save again
+     */
+    private CompletableFuture<Void> rebaseAndSave(PlayerData playerData, PlayerData stored) {
+        if (!plugin.isEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
         
-        try (Connection connection = databaseManager.getConnection()) {
-            String sql = "SELECT stat_type, stat_value FROM player_statistics WHERE player_uuid = ?";
-            
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    while (resultSet.next()) {
-                        statistics.put(resultSet.getString("stat_type"), resultSet.getInt("stat_value"));
-                    }
+        CompletableFuture<Void> saved = new CompletableFuture<>();
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            playerData.rebase(stored);
+            plugin.getLogger().info("Rebased player data for " + playerData.getUuid() + " onto stored version " + stored.getVersion());
+            writePlayerDataAsync(playerData).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    saved.completeExceptionally(error);
+                } else {
+                    saved.complete(null);
                 }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to load player statistics for " + uuid, e);
+            });
+        });
+        return saved;
+    }
+    
+    /**
+     * Write a player's row if it still holds the version this server last read or wrote.
+     * A newer stored version means another server (or an earlier session here) has saved the player since,
+     * so this copy has to be rebased before it can be written. The copy itself is left untouched; the caller
+     * marks it stored once the transaction commits.
+     * @return false if the write was rejected as stale
+     */
+    private boolean writePlayerData(Connection connection, PlayerData playerData, long expectedVersion,
+                                    PlayerData.Snapshot written) throws SQLException {
+        UUID uuid = playerData.getUuid();
+        String sql = """
+            UPDATE player_data SET username = ?, quest_points = ?, daily_rerolls = ?, weekly_rerolls = ?,
+                   last_daily_reset = ?, last_weekly_reset = ?, total_quests_completed = ?,
+                   join_date = ?, last_seen = ?, data_version = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE uuid = ? AND data_version = ?
+        """;
+        
+        int updated;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindPlayerColumns(statement, playerData, written);
+            statement.setLong(10, expectedVersion + 1);
+            statement.setString(11, uuid.toString());
+            statement.setLong(12, expectedVersion);
+            updated = statement.executeUpdate();
         }
         
-        return statistics;
+        if (updated == 0 && !insertPlayerData(connection, playerData, written, expectedVersion)) {
+            plugin.getLogger().warning("Rejected stale player data write for " + uuid + " (version " + expectedVersion
+                + " is behind the stored row)");
+            return false;
+        }
+        
+        // Save statistics
+        savePlayerStatistics(connection, uuid, written.statistics());
+        return true;
     }
     
-    private void savePlayerStatistics(UUID uuid, Map<String, Integer> statistics) throws SQLException {
+    /**
+     * Insert the first row for a player
+     * @return false if a row already exists (written by another server)
+     */
+    private boolean insertPlayerData(Connection connection, PlayerData playerData, PlayerData.Snapshot written, long expectedVersion) throws SQLException {
+        if (expectedVersion != 0) {
+            return false;
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM player_data WHERE uuid = ?")) {
+            statement.setString(1, playerData.getUuid().toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return false;
+                }
+            }
+        }
+        
         String sql = """
-            INSERT OR REPLACE INTO player_statistics (player_uuid, stat_type, stat_value, last_updated)
-            VALUES (?, ?, ?, CURRENT_TIMESTAMP)
+            INSERT INTO player_data (
+                username, quest_points, daily_rerolls, weekly_rerolls,
+                last_daily_reset, last_weekly_reset, total_quests_completed,
+                join_date, last_seen, data_version, uuid
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1, ?)
         """;
         
-        try (Connection connection = databaseManager.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindPlayerColumns(statement, playerData, written);
+            statement.setString(10, playerData.getUuid().toString());
+            statement.executeUpdate();
+        }
+        return true;
+    }
+    
+    /**
+     * @param written the counters being written, captured once so the stored state matches the row exactly
+     */
+    private void bindPlayerColumns(PreparedStatement statement, PlayerData playerData, PlayerData.Snapshot written) throws SQLException {
+        statement.setString(1, playerData.getUsername());
+        statement.setInt(2, written.questPoints());
+        statement.setInt(3, written.dailyRerolls());
+        statement.setInt(4, written.weeklyRerolls());
+        statement.setString(5, formatDateTime(written.lastDailyReset()));
+        statement.setString(6, formatDateTime(written.lastWeeklyReset()));
+        statement.setInt(7, written.totalQuestsCompleted());
+        statement.setString(8, formatDateTime(playerData.getJoinDate()));
+        statement.setString(9, formatDateTime(playerData.getLastSeen()));
+    }
+    
+    private Map<String, Integer> readPlayerStatistics(Connection connection, UUID uuid) throws SQLException {
+        Map<String, Integer> statistics = new ConcurrentHashMap<>();
+        String sql = "SELECT stat_type, stat_value FROM player_statistics WHERE player_uuid = ?";
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, uuid.toString());
             
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    statistics.put(resultSet.getString("stat_type"), resultSet.getInt("stat_value"));
+                }
+            }
+        }
+        
+        return statistics;
+    }
+    
+    private void savePlayerStatistics(Connection connection, UUID uuid, Map<String, Integer> statistics) throws SQLException {
+        String sql = databaseManager.getDialect().upsert("player_statistics")
+            .keys("player_uuid", "stat_type")
+            .columns("stat_value")
+            .now("last_updated")
+            .build();
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
             for (Map.Entry<String, Integer> entry : statistics.entrySet()) {
                 statement.setString(1, uuid.toString());
                 statement.setString(2, entry.getKey());
@@ -175,63 +332,87 @@ public class PlayerDataManager {
     
     public void saveAllPlayerData() {
         plugin.getLogger().info("Saving all player data...");
+        awaitPendingSaves();
         
-        for (PlayerData playerData : playerDataCache.values()) {
-            try (Connection connection = databaseManager.getConnection()) {
-                String sql = """
-                    INSERT OR REPLACE INTO player_data 
-                    (uuid, username, quest_points, daily_rerolls, weekly_rerolls,
-                     last_daily_reset, last_weekly_reset, total_quests_completed,
-                     join_date, last_seen, updated_at)
-                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-                """;
-                
-                try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                    statement.setString(1, playerData.getUuid().toString());
-                    statement.setString(2, playerData.getUsername());
-                    statement.setInt(3, playerData.getQuestPoints());
-                    statement.setInt(4, playerData.getDailyRerolls());
-                    statement.setInt(5, playerData.getWeeklyRerolls());
-                    statement.setString(6, formatDateTime(playerData.getLastDailyReset()));
-                    statement.setString(7, formatDateTime(playerData.getLastWeeklyReset()));
-                    statement.setInt(8, playerData.getTotalQuestsCompleted());
-                    statement.setString(9, formatDateTime(playerData.getJoinDate()));
-                    statement.setString(10, formatDateTime(playerData.getLastSeen()));
-                    
-                    statement.executeUpdate();
-                    
-                    // Save statistics
-                    savePlayerStatistics(playerData.getUuid(), playerData.getStatistics());
+        // One write on the writer connection, committed as a single transaction
+        List<Runnable> committed = new ArrayList<>();
+        try {
+            databaseManager.executeWrite(connection -> {
+                for (PlayerData playerData : playerDataCache.values()) {
+                    // A failed statement aborts the whole transaction on PostgreSQL, so undo just this player
+                    Savepoint savepoint = connection.setSavepoint();
+                    try {
+                        long expectedVersion = playerData.getVersion();
+                        PlayerData.Snapshot written = playerData.snapshot();
+                        // Shutdown runs on the main thread, so a stale copy can be rebased in place
+                        if (!writePlayerData(connection, playerData, expectedVersion, written)) {
+                            PlayerData stored = readPlayerData(connection, playerData.getUuid());
+                            if (stored == null) {
+                                continue;
+                            }
+                            playerData.rebase(stored);
+                            expectedVersion = playerData.getVersion();
+                            written = playerData.snapshot();
+                            if (!writePlayerData(connection, playerData, expectedVersion, written)) {
+                                continue;
+                            }
+                        }
+                        long storedVersion = expectedVersion + 1;
+                        PlayerData.Snapshot storedState = written;
+                        committed.add(() -> playerData.markStored(storedVersion, storedState));
+                    } catch (SQLException e) {
+                        connection.rollback(savepoint);
+                        plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + playerData.getUuid(), e);
+                    }
                 }
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + playerData.getUuid(), e);
-            }
+            });
+            committed.forEach(Runnable::run);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save player data", e);
         }
         
         plugin.getLogger().info("Player data saved successfully!");
     }
     
-    public void resetDailyData() {
-        LocalDateTime now = LocalDateTime.now();
-        int dailyRerolls = plugin.getConfigManager().getDailyQuestRerolls();
-        
-        for (PlayerData playerData : playerDataCache.values()) {
-            if (playerData.needsDailyReset()) {
-                playerData.resetDailyRerolls(dailyRerolls);
-                savePlayerData(playerData);
-            }
+    /**
+     * Wait for queued saves, so the final write starts from the versions they commit
+     */
+    private void awaitPendingSaves() {
+        long timeout = plugin.getConfigManager().getInt("database.executor-shutdown-timeout", 10000);
+        try {
+            CompletableFuture.allOf(pendingSaves.values().toArray(new CompletableFuture[0])).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().log(Level.WARNING, "Queued player data saves did not all finish before shutdown", e);
         }
     }
     
-    public void resetWeeklyData() {
-        LocalDateTime now = LocalDateTime.now();
-        int weeklyRerolls = plugin.getConfigManager().getInt("quests.weekly-rerolls", 1);
-        
-        for (PlayerData playerData : playerDataCache.values()) {
-            if (playerData.needsWeeklyReset()) {
-                playerData.resetWeeklyRerolls(weeklyRerolls);
-                savePlayerData(playerData);
-            }
+    /**
+     * Refill a loaded player's daily rerolls if they were last reset in an earlier daily epoch.
+     * Called where the daily quest set rolls over, so both reset together.
+     */
+    public void resetDailyData(UUID uuid) {
+        PlayerData playerData = playerDataCache.get(uuid);
+        QuestResetClock clock = plugin.getQuestResetClock();
+        if (playerData != null && (playerData.getLastDailyReset() == null
+                || clock.dayOf(playerData.getLastDailyReset()) < clock.currentDay())) {
+            playerData.resetDailyRerolls(plugin.getConfigManager().getDailyQuestRerolls());
+            savePlayerData(playerData);
+        }
+    }
+    
+    /**
+     * Refill a loaded player's weekly rerolls if they were last reset in an earlier weekly epoch.
+     * Called where the weekly quest set rolls over, so both reset together.
+     */
+    public void resetWeeklyData(UUID uuid) {
+        PlayerData playerData = playerDataCache.get(uuid);
+        QuestResetClock clock = plugin.getQuestResetClock();
+        if (playerData != null && (playerData.getLastWeeklyReset() == null
+                || clock.weekOf(playerData.getLastWeeklyReset()) < clock.currentWeek())) {
+            playerData.resetWeeklyRerolls(plugin.getConfigManager().getInt("quests.weekly-rerolls", 1));
+            savePlayerData(playerData);
         }
     }
     
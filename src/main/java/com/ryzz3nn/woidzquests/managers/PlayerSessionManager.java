@@ -0,0 +1,279 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.models.PlayerData;
+import com.ryzz3nn.woidzquests.models.PlayerSession;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Owns the lifecycle of every player's cached state across the managers (player data, daily, weekly
+ * and legacy quests, playtime, boss bar). Player data and daily/weekly quests are read on a single connection
+ * while the player is still logging in (off the main thread), so joining only has to attach the result.
+ * Quitting flushes the player's dirty state and then evicts them from every manager in one place.
+ * Players who are not online but were looked up (GUIs, admin commands, placeholders) are kept in a
+ * bounded least-recently-used set; the oldest is flushed and evicted once it is full.
+ */
+public class PlayerSessionManager {
+    
+    public enum State {
+        LOADING,  // Being read during login
+        ACTIVE,   // Online
+        OFFLINE,  // Not online, cached for lookups
+        FLUSHING, // Writing dirty state before eviction
+        EVICTED   // Nothing cached
+    }
+    
+    // Sessions nobody picked up (login denied later, disconnect) are dropped after this long
+    private static final long SESSION_TTL_MS = 60_000L;
+    
+    private final WoidZQuests plugin;
+    private final Map<UUID, PlayerSession> preparedSessions = new ConcurrentHashMap<>();
+    private final Map<UUID, State> states = new ConcurrentHashMap<>(); // Absent = EVICTED
+    
+    // Offline players in access order, oldest first; guarded by itself
+    private final Map<UUID, Boolean> offlinePlayers = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile int maxOfflinePlayers;
+    
+    public PlayerSessionManager(WoidZQuests plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    public void reload() {
+        this.maxOfflinePlayers = Math.max(0, plugin.getConfigManager().getInt("performance.cache.offline-players", 200));
+        trimOfflinePlayers();
+    }
+    
+    public State getState(UUID uuid) {
+        return states.getOrDefault(uuid, State.EVICTED);
+    }
+    
+    /**
+     * Load a player's session and keep it until they join. Blocks the calling thread.
+     */
+    public void preload(UUID uuid) {
+        expireSessions();
+        
+        // A player rejoining while their last session is still being flushed keeps that state
+        states.compute(uuid, (k, state) -> state == null || state == State.OFFLINE ? State.LOADING : state);
+        
+        // A player coming from another server is read only once that server has committed their data
+        long releasedVersion = plugin.getHandoffManager().awaitRelease(uuid);
+        
+        PlayerSession session = load(uuid);
+        if (session != null && isBehind(session, releasedVersion)) {
+            // The read did not see the released version yet (e.g. a lagging replica); try once more
+            session = load(uuid);
+        }
+        
+        if (session != null) {
+            preparedSessions.put(uuid, session);
+        }
+    }
+    
+    private void expireSessions() {
+        long now = System.currentTimeMillis();
+        Iterator<PlayerSession> iterator = preparedSessions.values().iterator();
+        while (iterator.hasNext()) {
+            PlayerSession session = iterator.next();
+            if (now - session.getLoadedAt() >= SESSION_TTL_MS) {
+                iterator.remove();
+                states.remove(session.getUuid(), State.LOADING);
+            }
+        }
+    }
+    
+    private boolean isBehind(PlayerSession session, long releasedVersion) {
+        PlayerData playerData = session.getPlayerData();
+        return releasedVersion > 0 && (playerData == null || playerData.getVersion() < releasedVersion);
+    }
+    
+    /**
+     * Read everything stored for a player on one connection
+     * @return null if the database could not be read
+     */
+    public PlayerSession load(UUID uuid) {
+        try (Connection connection = plugin.getDatabaseManager().getConnection()) {
+            return PlayerSession.builder()
+                .uuid(uuid)
+                .playerData(plugin.getPlayerDataManager().readPlayerData(connection, uuid))
+                .dailyQuests(plugin.getDailyQuestManager().readDailyQuests(connection, uuid))
+                .weeklyQuests(plugin.getWeeklyQuestManager().readWeeklyQuests(connection, uuid))
+                .loadedAt(System.currentTimeMillis())
+                .build();
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to preload session for " + uuid, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Attach a joining player's session and mark them online (join, main thread)
+     */
+    public void open(UUID uuid) {
+        PlayerSession session = take(uuid);
+        if (session != null) {
+            attach(session);
+        }
+        activate(uuid);
+    }
+    
+    /**
+     * Take the preloaded session for a joining player, reading it now if preloading did not happen
+     * (e.g. players already online during a reload)
+     */
+    private PlayerSession take(UUID uuid) {
+        PlayerSession session = preparedSessions.remove(uuid);
+        if (session != null && System.currentTimeMillis() - session.getLoadedAt() < SESSION_TTL_MS) {
+            return session;
+        }
+        return load(uuid);
+    }
+    
+    /**
+     * Install a session into the managers that own each part of it
+     */
+    private void attach(PlayerSession session) {
+        UUID uuid = session.getUuid();
+        plugin.getPlayerDataManager().attachPlayerData(uuid, session.getPlayerData());
+        plugin.getDailyQuestManager().attachDailyQuests(uuid, session.getDailyQuests());
+        plugin.getWeeklyQuestManager().attachWeeklyQuests(uuid, session.getWeeklyQuests());
+    }
+    
+    private void activate(UUID uuid) {
+        states.put(uuid, State.ACTIVE);
+        synchronized (offlinePlayers) {
+            offlinePlayers.remove(uuid);
+        }
+    }
+    
+    public void discard(UUID uuid) {
+        preparedSessions.remove(uuid);
+        states.remove(uuid, State.LOADING);
+    }
+    
+    /**
+     * Flush a player who quit and evict them once it is written (quit, main thread).
+     * Waits for the quest worker to apply their queued progress first.
+     */
+    public void close(UUID uuid) {
+        plugin.getPlaytimeTracker().stopTracking(uuid);
+        plugin.getBossBarManager().unloadPlayer(uuid); // The client dropped the bar with the connection
+        states.put(uuid, State.FLUSHING);
+        plugin.getProgressAccumulator().afterPending(() -> plugin.getHandoffManager().release(uuid));
+    }
+    
+    /**
+     * Record a lookup of a player's cached data. Players who are not online count towards the
+     * offline cache bound. Safe to call from any thread.
+     */
+    public void touch(UUID uuid) {
+        State state = states.get(uuid);
+        if (state != null && state != State.OFFLINE) {
+            return;
+        }
+        
+        // Online players without a session were already online when the plugin was enabled
+        if (plugin.getServer().getPlayer(uuid) != null) {
+            activate(uuid);
+            return;
+        }
+        
+        synchronized (offlinePlayers) {
+            if (offlinePlayers.put(uuid, Boolean.TRUE) == null) {
+                states.putIfAbsent(uuid, State.OFFLINE);
+            }
+        }
+        trimOfflinePlayers();
+    }
+    
+    private void trimOfflinePlayers() {
+        List<UUID> overflow = new ArrayList<>();
+        synchronized (offlinePlayers) {
+            Iterator<UUID> iterator = offlinePlayers.keySet().iterator();
+            while (offlinePlayers.size() - overflow.size() > maxOfflinePlayers && iterator.hasNext()) {
+                overflow.add(iterator.next());
+            }
+        }
+        
+        if (!overflow.isEmpty()) {
+            runOnMainThread(() -> overflow.forEach(this::flushOffline));
+        }
+    }
+    
+    private void flushOffline(UUID uuid) {
+        synchronized (offlinePlayers) {
+            offlinePlayers.remove(uuid);
+        }
+        // Joined or already evicted meanwhile
+        if (!states.replace(uuid, State.OFFLINE, State.FLUSHING)) {
+            return;
+        }
+        
+        // Legacy quests are saved as they change; player data of offline players is not modified
+        CompletableFuture<Void> flushed = CompletableFuture.allOf(
+            plugin.getDailyQuestManager().flushPlayer(uuid),
+            plugin.getWeeklyQuestManager().flushPlayer(uuid)
+        );
+        flushed.whenComplete((ignored, error) -> runOnMainThread(() -> {
+            if (error != null) {
+                plugin.getLogger().warning("Evicting " + uuid + " before their quests were fully written: " + error.getMessage());
+            }
+            if (states.get(uuid) == State.FLUSHING) {
+                evict(uuid);
+            }
+        }));
+    }
+    
+    /**
+     * Drop everything cached for a player from every manager, unless they are online (main thread).
+     * Callers flush dirty state first; a copy made stale by another server is dropped as is.
+     */
+    public void evict(UUID uuid) {
+        if (plugin.getServer().getPlayer(uuid) != null) {
+            return;
+        }
+        
+        plugin.getPlayerDataManager().removePlayerData(uuid);
+        plugin.getDailyQuestManager().unloadPlayer(uuid);
+        plugin.getWeeklyQuestManager().unloadPlayer(uuid);
+        plugin.getQuestManager().unloadPlayer(uuid);
+        plugin.getPlaytimeTracker().unloadPlayer(uuid);
+        plugin.getBossBarManager().unloadPlayer(uuid);
+        
+        synchronized (offlinePlayers) {
+            offlinePlayers.remove(uuid);
+        }
+        // A login already reading the player keeps its LOADING state
+        states.computeIfPresent(uuid, (k, state) -> state == State.LOADING ? state : null);
+    }
+    
+    public int getCachedCount() {
+        return states.size();
+    }
+    
+    public int getOfflineCount() {
+        synchronized (offlinePlayers) {
+            return offlinePlayers.size();
+        }
+    }
+    
+    private void runOnMainThread(Runnable task) {
+        if (plugin.getServer().isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ryzz3nn.woidzquests.managers;
 
 import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.models.ProgressContext;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
@@ -91,6 +92,14 @@ public class PlaytimeTracker {
         sessionStartTimes.remove(playerUuid);
     }
     
+    /**
+     * Forget a player's session playtime once they have left (session eviction)
+     */
+    public void unloadPlayer(UUID playerUuid) {
+        sessionStartTimes.remove(playerUuid);
+        totalPlaytime.remove(playerUuid);
+    }
+    
     /**
      * Update playtime and add progress to SURVIVAL/TIMED quests
      */
@@ -143,21 +152,19 @@ public class PlaytimeTracker {
                 );
                 
                 // Also track in old quest system
-                Map<String, Object> progressData = new HashMap<>();
-                progressData.put("minutes", elapsedMinutes);
-                progressData.put("world", player.getWorld().getName());
+                ProgressContext context = ProgressContext.inWorld(player.getWorld());
                 
                 plugin.getQuestManager().addProgress(
                     playerUuid, 
                     com.ryzz3nn.woidzquests.models.Quest.QuestType.SURVIVAL, 
-                    progressData, 
+                    context, 
                     (int) elapsedMinutes
                 );
                 
                 plugin.getQuestManager().addProgress(
                     playerUuid, 
                     com.ryzz3nn.woidzquests.models.Quest.QuestType.TIMED, 
-                    progressData, 
+                    context, 
                     (int) elapsedMinutes
                 );
                 
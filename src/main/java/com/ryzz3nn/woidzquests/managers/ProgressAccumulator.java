@@ -0,0 +1,197 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import com.ryzz3nn.woidzquests.WoidZQuests;
+import com.ryzz3nn.woidzquests.models.DailyQuest;
+import com.ryzz3nn.woidzquests.models.PlayerData;
+import com.ryzz3nn.woidzquests.models.ProgressEvent;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Takes daily/weekly/global quest progress and statistic increments off the server thread.
+ * Listeners only append an immutable record to a lock-free queue; a dedicated worker thread drains it,
+ * sums the increments per (player, type, targets), applies them to quest state and persists it.
+ * Only the resulting UI effects (boss bars, announcements) are posted back to the main thread.
+ * Vein miners and tree fellers firing dozens of events per tick therefore cost one queue append each.
+ */
+public class ProgressAccumulator {
+    
+    // Quest progress methods reject single increments above this as exploits
+    private static final int MAX_INCREMENT = 10000;
+    
+    // How long the worker sleeps when idle; producers wake it earlier
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    
+    private final WoidZQuests plugin;
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>(); // ProgressEvent, StatisticIncrement or Barrier
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile boolean idle;
+    
+    // Worker thread only
+    private final Map<ProgressKey, Integer> pendingProgress = new LinkedHashMap<>();
+    private final Map<UUID, Map<String, Integer>> pendingStatistics = new HashMap<>();
+    
+    // Metrics
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    
+    public ProgressAccumulator(WoidZQuests plugin) {
+        this.plugin = plugin;
+        this.worker = new Thread(this::run, "WoidZQuests-Quest-Worker");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    /**
+     * Queue progress for the player's daily, weekly and global quests of this type and target
+     */
+    public void add(UUID playerId, DailyQuest.QuestType type, String target, int amount) {
+        if (amount > 0) {
+            enqueue(new ProgressEvent(playerId, type, Set.of(target), amount));
+        }
+    }
+    
+    /**
+     * Queue one event described by several targets (e.g. ANY_FISH, RARE_FISH, TIER_5_FISH for one catch).
+     * Each quest matching any of them is progressed once, in a single index pass per manager.
+     */
+    public void add(UUID playerId, DailyQuest.QuestType type, Set<String> targets, int amount) {
+        if (amount > 0 && !targets.isEmpty()) {
+            enqueue(new ProgressEvent(playerId, type, Set.copyOf(targets), amount));
+        }
+    }
+    
+    /**
+     * Queue a statistic increment for the player
+     */
+    public void addStatistic(UUID playerId, String statistic, int amount) {
+        enqueue(new StatisticIncrement(playerId, statistic, amount));
+    }
+    
+    /**
+     * Run a task on the main thread once everything queued before it has been applied
+     * (e.g. saving a player who just quit)
+     */
+    public void afterPending(Runnable mainThreadTask) {
+        enqueue(new Barrier(mainThreadTask));
+    }
+    
+    private void enqueue(Object item) {
+        queue.offer(item);
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+    }
+    
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            Object item = queue.poll();
+            if (item == null) {
+                idle = true;
+                // Re-check after publishing the flag so a producer that missed it cannot be stranded
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+                continue;
+            }
+            
+            // Sum everything already queued, then apply it in one pass
+            do {
+                received.increment();
+                if (item instanceof ProgressEvent event) {
+                    pendingProgress.merge(new ProgressKey(event.playerId(), event.type(), event.targets()), event.amount(), Integer::sum);
+                } else if (item instanceof StatisticIncrement increment) {
+                    pendingStatistics.computeIfAbsent(increment.playerId(), k -> new HashMap<>())
+                        .merge(increment.statistic(), increment.amount(), Integer::sum);
+                } else if (item instanceof Barrier barrier) {
+                    applyPending();
+                    runOnMainThread(barrier.task());
+                }
+                item = queue.poll();
+            } while (item != null);
+            
+            applyPending();
+        }
+    }
+    
+    private void applyPending() {
+        try {
+            pendingProgress.forEach(this::applyProgress);
+            pendingStatistics.forEach(this::applyStatistics);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to apply quest progress", e);
+        } finally {
+            pendingProgress.clear();
+            pendingStatistics.clear();
+        }
+    }
+    
+    private void applyProgress(ProgressKey key, int total) {
+        applied.increment();
+        for (int remaining = total; remaining > 0; remaining -= MAX_INCREMENT) {
+            int amount = Math.min(remaining, MAX_INCREMENT);
+            plugin.getDailyQuestManager().addProgress(key.playerId(), key.type(), key.targets(), amount);
+            plugin.getWeeklyQuestManager().addProgress(key.playerId(), key.type().name(), key.targets(), amount);
+            plugin.getGlobalQuestManager().addProgress(key.playerId(), key.type().name(), key.targets(), amount);
+        }
+    }
+    
+    private void applyStatistics(UUID playerId, Map<String, Integer> increments) {
+        // Players no longer cached here have quit; their data was already saved
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerDataCache().get(playerId);
+        if (playerData != null) {
+            increments.forEach(playerData::addStatistic);
+        }
+    }
+    
+    private void runOnMainThread(Runnable task) {
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+    
+    /**
+     * Apply what is still queued and stop the worker (plugin shutdown)
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        if (worker.isAlive()) {
+            plugin.getLogger().warning("Quest worker did not finish " + queue.size() + " queued progress events before shutdown");
+        }
+    }
+    
+    public Stats getStats() {
+        return new Stats(queue.size(), received.sum(), applied.sum());
+    }
+    
+    /**
+     * Point-in-time worker metrics
+     * @param applied (player, type, targets) groups applied to quests, after summing
+     */
+    public record Stats(int queued, long received, long applied) {}
+    
+    private record ProgressKey(UUID playerId, DailyQuest.QuestType type, Set<String> targets) {}
+    
+    private record StatisticIncrement(UUID playerId, String statistic, int amount) {}
+    
+    private record Barrier(Runnable task) {}
+}
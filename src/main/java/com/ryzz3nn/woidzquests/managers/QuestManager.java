@@ -4,6 +4,7 @@ import com.ryzz3nn.woidzquests.WoidZQuests;
 import com.ryzz3nn.woidzquests.database.DatabaseManager;
 import com.ryzz3nn.woidzquests.models.Quest;
 import com.ryzz3nn.woidzquests.models.PlayerData;
+import com.ryzz3nn.woidzquests.models.ProgressContext;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import lombok.Getter;
@@ -57,9 +58,17 @@ public class QuestManager {
     }
     
     public List<Quest> getPlayerQuests(UUID playerUuid) {
+        plugin.getPlayerSessionManager().touch(playerUuid);
         return playerQuests.computeIfAbsent(playerUuid, this::loadPlayerQuests);
     }
     
+    /**
+     * Drop a player's quests from memory; they are saved as they change
+     */
+    public void unloadPlayer(UUID playerUuid) {
+        playerQuests.remove(playerUuid);
+    }
+    
     public List<Quest> getActiveQuests(UUID playerUuid) {
         return getPlayerQuests(playerUuid).stream()
             .filter(Quest::isActive)
@@ -139,12 +148,11 @@ public class QuestManager {
     
     public void saveQuest(Quest quest) {
         databaseManager.executeAsync(connection -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_quests 
-                (id, player_uuid, quest_id, quest_type, quest_data, progress, target, status,
-                 is_tracked, started_at, completed_at, expires_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
+            String sql = databaseManager.getDialect().upsert("player_quests")
+                .keys("id")
+                .columns("player_uuid", "quest_id", "quest_type", "quest_data", "progress", "target", "status",
+                    "is_tracked", "started_at", "completed_at", "expires_at")
+                .build();
             
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
                 // Prepare quest data
@@ -173,17 +181,30 @@ public class QuestManager {
                 
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to save quest " + quest.getId(), e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
             }
         });
     }
     
-    public boolean addProgress(UUID playerUuid, Quest.QuestType questType, Map<String, Object> progressData, int amount) {
-        List<Quest> quests = getActiveQuests(playerUuid);
+    /**
+     * Whether the player has a quest of this type that can still progress.
+     * Listeners check this before describing an event, so events no quest cares about allocate nothing.
+     */
+    public boolean isTracking(UUID playerUuid, Quest.QuestType questType) {
+        for (Quest quest : getPlayerQuests(playerUuid)) {
+            if (quest.getType() == questType && quest.canProgress()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public boolean addProgress(UUID playerUuid, Quest.QuestType questType, ProgressContext context, int amount) {
         boolean progressMade = false;
         
-        for (Quest quest : quests) {
+        for (Quest quest : getPlayerQuests(playerUuid)) {
             if (quest.getType() == questType && quest.canProgress()) {
-                if (meetsRequirements(quest, progressData)) {
+                if (quest.getCompiledRequirements().test(context)) {
                     quest.addProgress(amount);
                     saveQuest(quest);
                     
@@ -205,69 +226,6 @@ public class QuestManager {
         return progressMade;
     }
     
-    private boolean meetsRequirements(Quest quest, Map<String, Object> progressData) {
-        Map<String, Object> requirements = quest.getRequirements();
-        if (requirements == null || requirements.isEmpty()) {
-            return true;
-        }
-        
-        // Check from_smelting requirement (for smelting quests)
-        // This ensures only items from actual smelting count, not mining with silk touch
-        if (requirements.containsKey("from_smelting")) {
-            boolean requiresFromSmelting = (boolean) requirements.get("from_smelting");
-            boolean isFromSmelting = progressData.containsKey("from_smelting") && (boolean) progressData.get("from_smelting");
-            
-            if (requiresFromSmelting && !isFromSmelting) {
-                return false; // Quest requires smelting, but this didn't come from smelting
-            }
-        }
-        
-        // Check material requirements
-        if (requirements.containsKey("materials")) {
-            List<String> requiredMaterials = (List<String>) requirements.get("materials");
-            String material = (String) progressData.get("material");
-            // For smelting quests, check "item" field instead of "material"
-            if (material == null && progressData.containsKey("item")) {
-                material = (String) progressData.get("item");
-            }
-            if (material != null && !requiredMaterials.contains(material)) {
-                return false;
-            }
-        }
-        
-        // Check world requirements
-        if (requirements.containsKey("worlds")) {
-            List<String> requiredWorlds = (List<String>) requirements.get("worlds");
-            String world = (String) progressData.get("world");
-            if (world != null && !requiredWorlds.contains(world)) {
-                return false;
-            }
-        }
-        
-        // Check biome requirements
-        if (requirements.containsKey("biomes")) {
-            List<String> requiredBiomes = (List<String>) requirements.get("biomes");
-            String biome = (String) progressData.get("biome");
-            if (biome != null && !requiredBiomes.contains(biome)) {
-                return false;
-            }
-        }
-        
-        // Check Y-level requirements
-        if (requirements.containsKey("y_min") || requirements.containsKey("y_max")) {
-            Integer y = (Integer) progressData.get("y");
-            if (y != null) {
-                Integer yMin = (Integer) requirements.get("y_min");
-                Integer yMax = (Integer) requirements.get("y_max");
-                
-                if (yMin != null && y < yMin) return false;
-                if (yMax != null && y > yMax) return false;
-            }
-        }
-        
-        return true;
-    }
-    
     private void sendProgressMessage(UUID playerUuid, Quest quest) {
         // Send progress message to player
         // This would use the messaging system
@@ -333,6 +291,7 @@ public class QuestManager {
                 statement.executeUpdate();
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to remove quest " + questId, e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
             }
         });
     }
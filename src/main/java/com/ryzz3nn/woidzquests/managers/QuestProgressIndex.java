@@ -0,0 +1,75 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lookup table from (quest type, target) to the quests that care about it.
+ * Built once when a quest set is generated, rerolled or loaded so progress
+ * events don't have to scan every quest and its requirement lists.
+ *
+ * @param <Q> the quest model being indexed
+ */
+public class QuestProgressIndex<Q> {
+
+    private final Map<String, Map<String, List<Q>>> questsByTypeAndTarget = new HashMap<>();
+
+    /**
+     * Register a quest under a type/target key (duplicates are ignored)
+     */
+    public void add(String type, String target, Q quest) {
+        if (type == null || target == null) {
+            return;
+        }
+
+        List<Q> quests = questsByTypeAndTarget
+            .computeIfAbsent(type, k -> new HashMap<>())
+            .computeIfAbsent(target, k -> new ArrayList<>(2));
+
+        if (!quests.contains(quest)) {
+            quests.add(quest);
+        }
+    }
+
+    /**
+     * Get the quests registered for a type/target key, in the order they were added
+     * @return an empty list if nothing cares about this event
+     */
+    public List<Q> lookup(String type, String target) {
+        Map<String, List<Q>> byTarget = questsByTypeAndTarget.get(type);
+        if (byTarget == null) {
+            return Collections.emptyList();
+        }
+
+        List<Q> quests = byTarget.get(target);
+        return quests != null ? quests : Collections.emptyList();
+    }
+
+    /**
+     * Get the quests registered under any of the targets, each quest once
+     * @return an empty list if nothing cares about this event
+     */
+    public List<Q> lookup(String type, Collection<String> targets) {
+        if (targets.size() == 1) {
+            return lookup(type, targets.iterator().next());
+        }
+
+        List<Q> matches = new ArrayList<>();
+        for (String target : targets) {
+            for (Q quest : lookup(type, target)) {
+                if (!matches.contains(quest)) {
+                    matches.add(quest);
+                }
+            }
+        }
+        return matches;
+    }
+
+    public boolean isEmpty() {
+        return questsByTypeAndTarget.isEmpty();
+    }
+}
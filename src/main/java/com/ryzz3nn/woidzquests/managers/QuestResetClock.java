@@ -0,0 +1,88 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import com.ryzz3nn.woidzquests.WoidZQuests;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Numbers the daily and weekly quest periods in the configured timezone.
+ * Quest sets are stamped with the epoch they were generated in and rolled over the first time
+ * they are used in a later one, so a reset needs no timer and costs nothing for offline players.
+ */
+public class QuestResetClock {
+    
+    private final WoidZQuests plugin;
+    
+    // Read by the quest worker as well as the main thread
+    private volatile ZoneId zone = ZoneId.systemDefault();
+    private volatile DayOfWeek weeklyResetDay = DayOfWeek.MONDAY;
+    
+    public QuestResetClock(WoidZQuests plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    public void reload() {
+        String timezone = plugin.getConfigManager().getString("quests.reset.timezone", "");
+        try {
+            zone = timezone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            plugin.getLogger().warning("Invalid quests.reset.timezone '" + timezone + "', using the server timezone");
+            zone = ZoneId.systemDefault();
+        }
+        
+        String day = plugin.getConfigManager().getString("quests.reset.weekly-day", "MONDAY");
+        try {
+            weeklyResetDay = DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid quests.reset.weekly-day '" + day + "', using MONDAY");
+            weeklyResetDay = DayOfWeek.MONDAY;
+        }
+    }
+    
+    /**
+     * The current daily epoch: days since 1970-01-01 in the reset timezone
+     */
+    public long currentDay() {
+        return LocalDate.now(zone).toEpochDay();
+    }
+    
+    /**
+     * The daily epoch a timestamp falls in
+     */
+    public long dayOf(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), zone).toEpochDay();
+    }
+    
+    /**
+     * The daily epoch a server-local timestamp falls in
+     */
+    public long dayOf(LocalDateTime serverTime) {
+        return toResetDate(serverTime).toEpochDay();
+    }
+    
+    /**
+     * The current weekly epoch: the epoch day on which this week's reset happened
+     */
+    public long currentWeek() {
+        return LocalDate.now(zone).with(TemporalAdjusters.previousOrSame(weeklyResetDay)).toEpochDay();
+    }
+    
+    /**
+     * The weekly epoch a server-local timestamp falls in
+     */
+    public long weekOf(LocalDateTime serverTime) {
+        return toResetDate(serverTime).with(TemporalAdjusters.previousOrSame(weeklyResetDay)).toEpochDay();
+    }
+    
+    private LocalDate toResetDate(LocalDateTime serverTime) {
+        return serverTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone).toLocalDate();
+    }
+}
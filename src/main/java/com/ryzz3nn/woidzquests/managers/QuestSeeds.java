@@ -0,0 +1,48 @@
+package com.ryzz3nn.woidzquests.managers;
+
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds for quest generation. A player's quests are drawn from a generator keyed by
+ * (player, reset epoch, template pool version, slot reroll counter), so a quest set nobody has touched
+ * can be recomputed on demand instead of being stored and loaded.
+ */
+public final class QuestSeeds {
+    
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    
+    private QuestSeeds() {
+    }
+    
+    /**
+     * A generator that yields the same sequence for the same player and keys on every server and restart
+     */
+    public static Random random(UUID playerId, long... keys) {
+        long seed = mix(playerId.getMostSignificantBits());
+        seed = mix((seed + GOLDEN_GAMMA) ^ playerId.getLeastSignificantBits());
+        for (long key : keys) {
+            seed = mix((seed + GOLDEN_GAMMA) ^ key);
+        }
+        return new Random(seed);
+    }
+    
+    /**
+     * Version of a template pool from the template fields that affect generation.
+     * Uses String and Integer hashes only, which are the same on every JVM.
+     */
+    public static long poolVersion(Iterable<?> templateFields) {
+        long version = 1;
+        for (Object field : templateFields) {
+            version = mix((version + GOLDEN_GAMMA) ^ String.valueOf(field).hashCode());
+        }
+        return version;
+    }
+    
+    // SplitMix64 finalizer: spreads every input bit over the whole seed
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,28 +1,44 @@
 package com.ryzz3nn.woidzquests.managers;
 
+import com.google.gson.Gson;
 import com.ryzz3nn.woidzquests.WoidZQuests;
-import com.ryzz3nn.woidzquests.models.PlayerData;
 import com.ryzz3nn.woidzquests.models.WeeklyQuest;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.Tag;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.time.DayOfWeek;
-import java.time.LocalDateTime;
-import java.time.temporal.TemporalAdjusters;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 public class WeeklyQuestManager {
 
+    private static final Gson GSON = new Gson();
+
     private final WoidZQuests plugin;
-    private final Map<UUID, List<WeeklyQuest>> playerWeeklyQuests = new HashMap<>();
+    private final Map<UUID, List<WeeklyQuest>> playerWeeklyQuests = new ConcurrentHashMap<>(); // Progress is applied on the quest worker
+    private final Map<UUID, QuestProgressIndex<WeeklyQuest>> playerWeeklyIndexes = new ConcurrentHashMap<>();
     private final List<WeeklyQuestTemplate> questTemplates = new ArrayList<>();
+    private final Set<UUID> pendingRollovers = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final long templatePoolVersion; // Seed key: editing the templates changes every untouched set
 
     public WeeklyQuestManager(WoidZQuests plugin) {
         this.plugin = plugin;
         initializeQuestTemplates();
-        scheduleWeeklyReset();
+        
+        List<Object> poolFields = new ArrayList<>();
+        for (WeeklyQuestTemplate template : questTemplates) {
+            poolFields.addAll(List.of(template.type, template.target, template.minAmount, template.maxAmount,
+                template.baseMoney, template.baseExperience, template.baseQuestPoints));
+        }
+        this.templatePoolVersion = QuestSeeds.poolVersion(poolFields);
+        startProgressFlusher();
     }
 
     private void initializeQuestTemplates() {
@@ -93,39 +109,139 @@ public class WeeklyQuestManager {
             Material.STONE_BRICKS, 500, 1200, 1500.0, 750, 70));
     }
 
+    /**
+     * The player's quests for the current week. They are generated on first use, and again the first time
+     * they are used after a reset. Main thread only; the quest worker never generates quests.
+     */
     public List<WeeklyQuest> getPlayerWeeklyQuests(UUID playerId) {
-        return playerWeeklyQuests.computeIfAbsent(playerId, k -> generateNewWeeklyQuests());
+        long week = plugin.getQuestResetClock().currentWeek();
+        List<WeeklyQuest> quests = playerWeeklyQuests.get(playerId);
+        if (quests != null && isCurrent(quests, week)) {
+            return quests;
+        }
+        
+        boolean expired = quests != null;
+        boolean stored = expired && quests.stream().anyMatch(this::hasRow);
+        
+        // Nothing is written for an untouched set; it is recomputed from its seed
+        replaceWeeklyQuests(playerId, week);
+        plugin.getPlayerDataManager().resetWeeklyData(playerId);
+        if (expired) {
+            // Last week's set: rolled over now rather than for everyone at the reset
+            if (stored) {
+                deleteStaleQuests(playerId, week);
+            }
+            notifyNewQuests(playerId);
+        }
+        return playerWeeklyQuests.get(playerId);
+    }
+    
+    private boolean isCurrent(List<WeeklyQuest> quests, long week) {
+        return quests.isEmpty() || quests.get(0).getResetEpoch() == week;
+    }
+    
+    /**
+     * Whether a quest differs from what its seed yields and so has to be stored.
+     * Sets from before quests were seeded (slot -1) cannot be recomputed and are stored whole.
+     */
+    private boolean needsRow(WeeklyQuest quest) {
+        return quest.getSlot() < 0 || quest.getCurrentProgress() > 0 || quest.isCompleted() || quest.isClaimed()
+            || quest.getRerolls() > 0;
+    }
+    
+    /**
+     * Whether a quest has a row, or will have one once a queued write commits; deletes are queued behind it
+     */
+    private boolean hasRow(WeeklyQuest quest) {
+        return quest.isStored() || quest.isInserting();
     }
 
     public void addProgress(UUID playerId, String questType, String target, int amount) {
-        List<WeeklyQuest> quests = getPlayerWeeklyQuests(playerId);
-        
-        for (WeeklyQuest quest : quests) {
-            if (quest.getType().equals(questType) && 
-                (quest.getTarget().equals(target) || isMatchingCategory(quest.getTarget(), target)) &&
-                !quest.isCompleted()) {
-                
-                int oldProgress = quest.getCurrentProgress();
-                quest.addProgress(amount);
-                
-                Player player = Bukkit.getPlayer(playerId);
-                if (player != null && player.isOnline()) {
-                    // Show progress update with throttling (every 10%)
-                    if (shouldShowProgressUpdate(oldProgress, quest.getCurrentProgress(), quest.getTargetAmount())) {
-                        plugin.getBossBarManager().showQuestProgress(player, convertToDisplayQuest(quest));
+        addProgress(playerId, questType, List.of(target), amount);
+    }
+    
+    /**
+     * Apply progress to a player's loaded quests. Runs on the quest worker, so it never generates quests.
+     * Each target carries its amount over its own matching quests; a quest listening for several of the
+     * targets is progressed once. Changes are written by the periodic flusher.
+     */
+    public void addProgress(UUID playerId, String questType, Collection<String> targets, int amount) {
+        List<WeeklyQuest> quests = playerWeeklyQuests.get(playerId);
+        if (quests != null && !isCurrent(quests, plugin.getQuestResetClock().currentWeek())) {
+            // Expired set: don't credit it, and have the main thread roll it over
+            if (pendingRollovers.add(playerId)) {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    pendingRollovers.remove(playerId);
+                    if (playerWeeklyQuests.containsKey(playerId)) {
+                        getPlayerWeeklyQuests(playerId);
                     }
+                });
+            }
+            return;
+        }
+        
+        QuestProgressIndex<WeeklyQuest> index = playerWeeklyIndexes.get(playerId);
+        if (index == null) {
+            return;
+        }
+        
+        Set<WeeklyQuest> credited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String target : targets) {
+            int remaining = amount;
+            for (WeeklyQuest quest : index.lookup(questType, target)) {
+                if (remaining <= 0) {
+                    break;
+                }
+                if (!quest.isCompleted() && credited.add(quest)) {
+                    
+                    // Progress beyond this quest's target carries over to the next quest matching this target
+                    int oldProgress = quest.getCurrentProgress();
+                    int applied = Math.min(remaining, Math.max(1, quest.getTargetAmount() - oldProgress));
+                    remaining -= applied;
+                    quest.addProgress(applied);
+                    quest.setDirty(true);
                     
-                    // Show completion notification
-                    if (quest.isCompleted() && oldProgress < quest.getTargetAmount()) {
-                        plugin.getBossBarManager().showQuestCompleted(player, convertToDisplayQuest(quest));
+                    Player player = Bukkit.getPlayer(playerId);
+                    if (player != null && player.isOnline()) {
+                        // Show progress update with throttling (every 10%)
+                        if (shouldShowProgressUpdate(oldProgress, quest.getCurrentProgress(), quest.getTargetAmount())) {
+                            plugin.getBossBarManager().showQuestProgress(player, convertToDisplayQuest(quest));
+                        }
+                        
+                        // Show completion notification
+                        if (quest.isCompleted() && oldProgress < quest.getTargetAmount()) {
+                            plugin.getBossBarManager().showQuestCompleted(player, convertToDisplayQuest(quest));
+                        }
                     }
                 }
-                
-                // Save progress to database
-                saveWeeklyQuests(playerId);
-                break;
             }
         }
+        boolean progressMade = !credited.isEmpty();
+        
+        if (progressMade) {
+            // Written by the periodic flusher instead of rewriting the set per worker batch
+            dirtyPlayers.add(playerId);
+        }
+    }
+
+    /**
+     * Build the (type, target) lookup for a player's quest set.
+     * Category targets such as WOOD_PLANKS are expanded to every matching material up front.
+     */
+    private QuestProgressIndex<WeeklyQuest> buildProgressIndex(List<WeeklyQuest> quests) {
+        QuestProgressIndex<WeeklyQuest> index = new QuestProgressIndex<>();
+        
+        for (WeeklyQuest quest : quests) {
+            index.add(quest.getType(), quest.getTarget(), quest);
+            
+            if ("WOOD_PLANKS".equals(quest.getTarget())) {
+                for (Material planks : Tag.PLANKS.getValues()) {
+                    index.add(quest.getType(), planks.name(), quest);
+                }
+            }
+        }
+        
+        return index;
     }
 
     private boolean shouldShowProgressUpdate(int oldProgress, int newProgress, int target) {
@@ -136,25 +252,23 @@ public class WeeklyQuestManager {
 
     // Helper method to convert WeeklyQuest to a format compatible with BossBarManager
     private com.ryzz3nn.woidzquests.models.DailyQuest convertToDisplayQuest(WeeklyQuest weeklyQuest) {
-        com.ryzz3nn.woidzquests.models.DailyQuest.DailyReward reward = 
-            new com.ryzz3nn.woidzquests.models.DailyQuest.DailyReward();
-        reward.setMoney((int) weeklyQuest.getReward().getMoney());
-        reward.setExperience(weeklyQuest.getReward().getExperience());
-        
         // Convert string type to enum
         com.ryzz3nn.woidzquests.models.DailyQuest.QuestType questType = 
             com.ryzz3nn.woidzquests.models.DailyQuest.QuestType.valueOf(weeklyQuest.getType());
         
+        // Weekly descriptions are already rendered, so a one-off template carries them as is
+        com.ryzz3nn.woidzquests.models.DailyQuestTemplate template = new com.ryzz3nn.woidzquests.models.DailyQuestTemplate(
+            weeklyQuest.getId(), weeklyQuest.getName(), weeklyQuest.getDescription(), questType,
+            weeklyQuest.getDisplayMaterial(), weeklyQuest.getTarget(), weeklyQuest.getTargetAmount(), weeklyQuest.getTargetAmount(),
+            0, 0, 0, 0, List.of(), List.of(), 0, com.ryzz3nn.woidzquests.models.QuestRequirements.NONE
+        );
+        
         com.ryzz3nn.woidzquests.models.DailyQuest displayQuest = 
             new com.ryzz3nn.woidzquests.models.DailyQuest(
                 weeklyQuest.getId(),
-                weeklyQuest.getName(),
-                weeklyQuest.getDescription(),
-                questType,
-                weeklyQuest.getDisplayMaterial(),
-                weeklyQuest.getTarget(),
+                template,
                 weeklyQuest.getTargetAmount(),
-                reward
+                template.createReward((int) weeklyQuest.getReward().getMoney(), weeklyQuest.getReward().getExperience())
             );
         
         displayQuest.setCurrentProgress(weeklyQuest.getCurrentProgress());
@@ -164,20 +278,13 @@ public class WeeklyQuestManager {
         return displayQuest;
     }
 
-    private boolean isMatchingCategory(String questTarget, String actualTarget) {
-        // Handle wood planks category
-        if ("WOOD_PLANKS".equals(questTarget)) {
-            return actualTarget.endsWith("_PLANKS");
-        }
-        return false;
-    }
-
     public boolean claimReward(UUID playerId, String questId) {
         List<WeeklyQuest> quests = getPlayerWeeklyQuests(playerId);
         
         for (WeeklyQuest quest : quests) {
             if (quest.getId().equals(questId) && quest.isCompleted() && !quest.isClaimed()) {
                 quest.setClaimed(true);
+                quest.setDirty(true);
                 
                 Player player = Bukkit.getPlayer(playerId);
                 if (player != null && player.isOnline()) {
@@ -212,8 +319,8 @@ public class WeeklyQuestManager {
                     player.sendMessage(plugin.parseMessage("<gray>[<green><bold>✓</bold></green><gray>]<reset> Claimed reward for: <yellow>" + quest.getName() + "<reset>!"));
                 }
                 
-                // Save to database
-                saveWeeklyQuests(playerId);
+                // Written with the next flush; the quit flush covers a player leaving right away
+                dirtyPlayers.add(playerId);
                 
                 return true;
             }
@@ -222,34 +329,28 @@ public class WeeklyQuestManager {
         return false;
     }
 
-    private void scheduleWeeklyReset() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                LocalDateTime now = LocalDateTime.now();
-                LocalDateTime nextMonday = now.with(TemporalAdjusters.next(DayOfWeek.MONDAY)).withHour(0).withMinute(0).withSecond(0);
-                
-                // Check if it's time for weekly reset (Monday 00:00)
-                if (now.getDayOfWeek() == DayOfWeek.MONDAY && now.getHour() == 0 && now.getMinute() == 0) {
-                    resetAllWeeklyQuests();
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 20L * 60L); // Check every minute
-    }
-
-    private void resetAllWeeklyQuests() {
-        for (UUID playerId : playerWeeklyQuests.keySet()) {
-            generateNewWeeklyQuests(playerId);
-            
-            Player player = Bukkit.getPlayer(playerId);
-            if (player != null && player.isOnline()) {
-                player.sendMessage(plugin.parseMessage("<gray>[<yellow><bold>Weekly Quests</bold></yellow><gray>]<reset> New weekly quests available! Use <yellow>/quests<reset> to view them."));
-            }
+    private void notifyNewQuests(UUID playerId) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null && player.isOnline()) {
+            player.sendMessage(plugin.parseMessage("<gray>[<yellow><bold>Weekly Quests</bold></yellow><gray>]<reset> New weekly quests available! Use <yellow>/quests<reset> to view them."));
         }
     }
 
+    /**
+     * Reroll every slot of the player's current set (admin command)
+     */
     public void generateNewWeeklyQuestsForPlayer(UUID playerId) {
-        generateNewWeeklyQuests(playerId);
+        List<WeeklyQuest> quests = getPlayerWeeklyQuests(playerId);
+        List<String> replacedIds = new ArrayList<>();
+        for (int slot = 0; slot < quests.size(); slot++) {
+            WeeklyQuest replaced = rerollSlot(playerId, quests, slot);
+            if (hasRow(replaced)) {
+                replacedIds.add(replaced.getId());
+            }
+        }
+        playerWeeklyIndexes.put(playerId, buildProgressIndex(quests));
+        deleteStoredQuests(playerId, replacedIds);
+        dirtyPlayers.add(playerId);
     }
     
     /**
@@ -265,14 +366,32 @@ public class WeeklyQuestManager {
             return;
         }
         
-        // Generate a new quest to replace the one at this slot
-        List<WeeklyQuestTemplate> availableTemplates = new ArrayList<>(questTemplates);
-        
-        if (availableTemplates.isEmpty()) {
+        if (questTemplates.isEmpty()) {
             plugin.getLogger().warning("No quest templates available for quest reset!");
             return;
         }
         
+        WeeklyQuest replaced = rerollSlot(playerId, quests, slotIndex);
+        playerWeeklyIndexes.put(playerId, buildProgressIndex(quests));
+        if (hasRow(replaced)) {
+            deleteStoredQuests(playerId, List.of(replaced.getId()));
+        }
+        
+        // Rerolled slots are stored so the reroll survives a restart
+        dirtyPlayers.add(playerId);
+        
+        plugin.getLogger().info("Reset weekly quest slot " + (slotIndex + 1) + " for player " + playerId);
+    }
+    
+    /**
+     * Replace one slot with a quest drawn from the slot's next reroll seed.
+     * The new quest is marked dirty so the flusher stores it.
+     * @return the replaced quest
+     */
+    private WeeklyQuest rerollSlot(UUID playerId, List<WeeklyQuest> quests, int slotIndex) {
+        // Generate a new quest to replace the one at this slot
+        List<WeeklyQuestTemplate> availableTemplates = new ArrayList<>(questTemplates);
+        
         // Remove templates that are already active for this player
         for (WeeklyQuest activeQuest : quests) {
             availableTemplates.removeIf(template -> 
@@ -286,99 +405,280 @@ public class WeeklyQuestManager {
         }
         
         // Select a new quest randomly
-        Collections.shuffle(availableTemplates);
-        WeeklyQuestTemplate template = availableTemplates.get(0);
-        WeeklyQuest newQuest = createQuestFromTemplate(template);
-        quests.set(slotIndex, newQuest);
-        
-        // TODO: Save updated quest to database
-        
-        plugin.getLogger().info("Reset weekly quest slot " + (slotIndex + 1) + " for player " + playerId);
+        WeeklyQuest replaced = quests.get(slotIndex);
+        int rerolls = replaced.getRerolls() + 1;
+        Random random = QuestSeeds.random(playerId, replaced.getResetEpoch(), templatePoolVersion, slotIndex, rerolls);
+        WeeklyQuestTemplate template = availableTemplates.get(random.nextInt(availableTemplates.size()));
+        WeeklyQuest quest = createQuestFromTemplate(template, random, replaced.getResetEpoch(), slotIndex, rerolls);
+        quest.setDirty(true);
+        quests.set(slotIndex, quest);
+        return replaced;
     }
     
-    private void generateNewWeeklyQuests(UUID playerId) {
-        List<WeeklyQuest> newQuests = generateNewWeeklyQuests();
+    private void replaceWeeklyQuests(UUID playerId, long week) {
+        List<WeeklyQuest> newQuests = generateNewWeeklyQuests(playerId, week);
         playerWeeklyQuests.put(playerId, newQuests);
-        
-        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(playerId);
-        // Save weekly quests to database
-        saveWeeklyQuests(playerId);
+        playerWeeklyIndexes.put(playerId, buildProgressIndex(newQuests));
     }
 
-    private List<WeeklyQuest> generateNewWeeklyQuests() {
+    /**
+     * The quests a player gets for a week before any reroll. The same player, week and template pool
+     * always yield the same set, so an untouched set never needs to be stored or loaded.
+     */
+    private List<WeeklyQuest> generateNewWeeklyQuests(UUID playerId, long week) {
         List<WeeklyQuest> quests = new ArrayList<>();
         List<WeeklyQuestTemplate> availableTemplates = new ArrayList<>(questTemplates);
-        Collections.shuffle(availableTemplates);
+        Random random = QuestSeeds.random(playerId, week, templatePoolVersion);
+        Collections.shuffle(availableTemplates, random);
         
         // Generate 3 random weekly quests
         for (int i = 0; i < Math.min(3, availableTemplates.size()); i++) {
             WeeklyQuestTemplate template = availableTemplates.get(i);
-            quests.add(createQuestFromTemplate(template));
+            quests.add(createQuestFromTemplate(template, random, week, i, 0));
         }
         
         return quests;
     }
 
-    private WeeklyQuest createQuestFromTemplate(WeeklyQuestTemplate template) {
-        Random random = new Random();
+    private WeeklyQuest createQuestFromTemplate(WeeklyQuestTemplate template, Random random, long week, int slot, int rerolls) {
         int amount = template.minAmount + random.nextInt(template.maxAmount - template.minAmount + 1);
         
         String questName = template.description.replace("{amount}", String.valueOf(amount));
-        String questId = "weekly_" + template.type.toLowerCase() + "_" + template.target.toLowerCase() + "_" + System.currentTimeMillis();
+        // Derived from the seed keys so a recomputed quest matches its stored row
+        String questId = "weekly_" + template.type.toLowerCase() + "_" + template.target.toLowerCase() + "_" + week + "_" + slot + "_" + rerolls;
         
         WeeklyQuest.WeeklyReward reward = new WeeklyQuest.WeeklyReward(
             template.baseMoney, template.baseExperience, template.baseQuestPoints);
         
-        return new WeeklyQuest(questId, questName, questName, template.type, template.target, 
+        WeeklyQuest quest = new WeeklyQuest(questId, questName, questName, template.type, template.target, 
                               amount, template.displayMaterial, reward);
+        quest.setResetEpoch(week);
+        quest.setSlot(slot);
+        quest.setRerolls(rerolls);
+        return quest;
+    }
+    
+    private void startProgressFlusher() {
+        long intervalTicks = Math.max(1, plugin.getConfigManager().getInt("performance.quest-flush-interval", 10)) * 20L;
+        
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushDirtyQuests();
+            }
+        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+    }
+    
+    /**
+     * Write the changes of every dirty quest in one batched transaction
+     */
+    public void flushDirtyQuests() {
+        List<ProgressSnapshot> snapshots = new ArrayList<>();
+        for (UUID playerId : dirtyPlayers) {
+            dirtyPlayers.remove(playerId);
+            collectDirtyQuests(playerId, snapshots);
+        }
+        writeProgressAsync(snapshots);
+    }
+    
+    /**
+     * Write a single player's pending changes (used on quit and eviction)
+     * @return future completing once the changes have committed
+     */
+    public CompletableFuture<Void> flushPlayer(UUID playerId) {
+        dirtyPlayers.remove(playerId);
+        List<ProgressSnapshot> snapshots = new ArrayList<>();
+        collectDirtyQuests(playerId, snapshots);
+        return writeProgressAsync(snapshots);
+    }
+    
+    /**
+     * Synchronously write all pending changes (plugin shutdown)
+     */
+    public void shutdown() {
+        List<ProgressSnapshot> snapshots = new ArrayList<>();
+        for (UUID playerId : dirtyPlayers) {
+            collectDirtyQuests(playerId, snapshots);
+        }
+        dirtyPlayers.clear();
+        
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        
+        try {
+            plugin.getDatabaseManager().executeWrite(connection -> writeProgress(connection, snapshots));
+            markStored(snapshots);
+            plugin.getLogger().info("Flushed " + snapshots.size() + " pending weekly quest updates");
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to flush weekly quest progress on shutdown", e);
+        }
     }
     
     /**
-     * Save weekly quests for a player to the database
+     * Snapshot dirty quests on the main thread, where the set itself is replaced
      */
-    private void saveWeeklyQuests(UUID playerId) {
+    private void collectDirtyQuests(UUID playerId, List<ProgressSnapshot> snapshots) {
         List<WeeklyQuest> quests = playerWeeklyQuests.get(playerId);
-        if (quests == null || quests.isEmpty()) {
+        if (quests == null || plugin.getHandoffManager().isHandedOver(playerId)) {
             return;
         }
         
-        plugin.getDatabaseManager().executeAsync(connection -> {
+        for (WeeklyQuest quest : quests) {
+            if (quest.isDirty()) {
+                quest.setDirty(false);
+                
+                // Untouched quests are recomputed from their seed on load, so only the others get a row
+                boolean insert = !quest.isStored();
+                if (insert && !needsRow(quest)) {
+                    continue;
+                }
+                if (insert) {
+                    quest.setInserting(true);
+                }
+                snapshots.add(new ProgressSnapshot(playerId, quest, quest.getCurrentProgress(),
+                    quest.isCompleted(), quest.isClaimed(), insert));
+            }
+        }
+    }
+    
+    private CompletableFuture<Void> writeProgressAsync(List<ProgressSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return plugin.getDatabaseManager().executeAsync(connection -> {
             try {
-                // Delete old weekly quests for this player
-                String deleteSql = "DELETE FROM weekly_quests WHERE player_uuid = ?";
-                try (var deleteStmt = connection.prepareStatement(deleteSql)) {
-                    deleteStmt.setString(1, playerId.toString());
-                    deleteStmt.executeUpdate();
+                writeProgress(connection, snapshots);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to flush " + snapshots.size() + " weekly quest updates", e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
+            }
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                restoreSnapshots(snapshots);
+            } else {
+                markStored(snapshots);
+            }
+        });
+    }
+    
+    /**
+     * Record the rows a committed flush created
+     */
+    private void markStored(List<ProgressSnapshot> snapshots) {
+        for (ProgressSnapshot snapshot : snapshots) {
+            if (snapshot.insert()) {
+                snapshot.quest().setStored(true);
+                snapshot.quest().setInserting(false);
+            }
+        }
+    }
+    
+    /**
+     * Mark the quests of a failed flush dirty again so the next flush writes them
+     */
+    private void restoreSnapshots(List<ProgressSnapshot> snapshots) {
+        for (ProgressSnapshot snapshot : snapshots) {
+            WeeklyQuest quest = snapshot.quest();
+            if (snapshot.insert()) {
+                quest.setInserting(false);
+            }
+            quest.setDirty(true);
+            dirtyPlayers.add(snapshot.playerId());
+        }
+    }
+    
+    private void writeProgress(Connection connection, List<ProgressSnapshot> snapshots) throws SQLException {
+        String updateSql = """
+            UPDATE weekly_quests SET current_progress = ?, completed = ?, claimed = ?
+            WHERE player_uuid = ? AND quest_id = ?
+        """;
+        
+        // A row whose first write is still in flight is upserted again by the next flush
+        String insertSql = plugin.getDatabaseManager().getDialect().upsert("weekly_quests")
+            .keys("player_uuid", "quest_id")
+            .columns("quest_name", "quest_description", "quest_type", "display_material", "target", "target_amount",
+                "current_progress", "completed", "claimed", "reward_data", "reset_epoch", "slot_index", "rerolls")
+            .build();
+        
+        // The writer commits the whole batch in one transaction
+        try (var updateStatement = connection.prepareStatement(updateSql);
+             var insertStatement = connection.prepareStatement(insertSql)) {
+            for (ProgressSnapshot snapshot : snapshots) {
+                WeeklyQuest quest = snapshot.quest();
+                if (snapshot.insert()) {
+                    insertStatement.setString(1, snapshot.playerId().toString());
+                    insertStatement.setString(2, quest.getId());
+                    insertStatement.setString(3, quest.getName());
+                    insertStatement.setString(4, quest.getDescription());
+                    insertStatement.setString(5, quest.getType());
+                    insertStatement.setString(6, quest.getDisplayMaterial().name());
+                    insertStatement.setString(7, quest.getTarget());
+                    insertStatement.setInt(8, quest.getTargetAmount());
+                    insertStatement.setInt(9, snapshot.progress());
+                    insertStatement.setBoolean(10, snapshot.completed());
+                    insertStatement.setBoolean(11, snapshot.claimed());
+                    insertStatement.setString(12, GSON.toJson(quest.getReward()));
+                    insertStatement.setLong(13, quest.getResetEpoch());
+                    insertStatement.setInt(14, quest.getSlot());
+                    insertStatement.setInt(15, quest.getRerolls());
+                    insertStatement.addBatch();
+                } else {
+                    updateStatement.setInt(1, snapshot.progress());
+                    updateStatement.setBoolean(2, snapshot.completed());
+                    updateStatement.setBoolean(3, snapshot.claimed());
+                    updateStatement.setString(4, snapshot.playerId().toString());
+                    updateStatement.setString(5, quest.getId());
+                    updateStatement.addBatch();
                 }
-                
-                // Insert current quests
-                String insertSql = """
-                    INSERT INTO weekly_quests (
-                        player_uuid, quest_id, quest_name, quest_description, quest_type,
-                        display_material, target, target_amount, current_progress,
-                        completed, claimed, reward_data
-                    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-                
-                try (var insertStmt = connection.prepareStatement(insertSql)) {
-                    for (WeeklyQuest quest : quests) {
-                        insertStmt.setString(1, playerId.toString());
-                        insertStmt.setString(2, quest.getId());
-                        insertStmt.setString(3, quest.getName());
-                        insertStmt.setString(4, quest.getDescription());
-                        insertStmt.setString(5, quest.getType());
-                        insertStmt.setString(6, quest.getDisplayMaterial().name());
-                        insertStmt.setString(7, quest.getTarget());
-                        insertStmt.setInt(8, quest.getTargetAmount());
-                        insertStmt.setInt(9, quest.getCurrentProgress());
-                        insertStmt.setBoolean(10, quest.isCompleted());
-                        insertStmt.setBoolean(11, quest.isClaimed());
-                        insertStmt.setString(12, new com.google.gson.Gson().toJson(quest.getReward()));
-                        insertStmt.executeUpdate();
-                    }
+            }
+            insertStatement.executeBatch();
+            updateStatement.executeBatch();
+        }
+    }
+    
+    /**
+     * Delete a player's rows from earlier weeks after their set rolled over
+     */
+    private void deleteStaleQuests(UUID playerId, long week) {
+        if (plugin.getHandoffManager().isHandedOver(playerId)) {
+            return;
+        }
+        
+        plugin.getDatabaseManager().executeAsync(connection -> {
+            String sql = "DELETE FROM weekly_quests WHERE player_uuid = ? AND (reset_epoch IS NULL OR reset_epoch <> ?)";
+            try (var statement = connection.prepareStatement(sql)) {
+                statement.setString(1, playerId.toString());
+                statement.setLong(2, week);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to delete old weekly quests for player " + playerId, e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
+            }
+        });
+    }
+    
+    /**
+     * Delete the rows of rerolled quests; their replacements are inserted by the flusher
+     */
+    private void deleteStoredQuests(UUID playerId, List<String> questIds) {
+        if (questIds.isEmpty() || plugin.getHandoffManager().isHandedOver(playerId)) {
+            return;
+        }
+        
+        plugin.getDatabaseManager().executeAsync(connection -> {
+            String sql = "DELETE FROM weekly_quests WHERE player_uuid = ? AND quest_id = ?";
+            try (var statement = connection.prepareStatement(sql)) {
+                for (String questId : questIds) {
+                    statement.setString(1, playerId.toString());
+                    statement.setString(2, questId);
+                    statement.addBatch();
                 }
-            } catch (Exception e) {
-                plugin.getLogger().log(java.util.logging.Level.WARNING, "Failed to save weekly quests for player " + playerId, e);
+                statement.executeBatch();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to delete rerolled weekly quests for player " + playerId, e);
+                throw e; // Rolls back this operation's savepoint in the writer batch
             }
         });
     }
@@ -388,58 +688,121 @@ public class WeeklyQuestManager {
      */
     public void loadWeeklyQuests(UUID playerId) {
         try (var connection = plugin.getDatabaseManager().getConnection()) {
-            String sql = """
-                SELECT quest_id, quest_name, quest_description, quest_type, display_material,
-                       target, target_amount, current_progress, completed, claimed, reward_data
-                FROM weekly_quests
-                WHERE player_uuid = ?
-            """;
+            attachWeeklyQuests(playerId, readWeeklyQuests(connection, playerId));
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load weekly quests for player " + playerId, e);
+        }
+    }
+
+    /**
+     * Read a player's stored weekly quests on the given connection
+     */
+    public List<WeeklyQuest> readWeeklyQuests(Connection connection, UUID playerId) throws SQLException {
+        String sql = """
+            SELECT quest_id, quest_name, quest_description, quest_type, display_material,
+                   target, target_amount, current_progress, completed, claimed, reward_data, reset_epoch,
+                   slot_index, rerolls
+            FROM weekly_quests
+            WHERE player_uuid = ?
+        """;
+        
+        List<WeeklyQuest> loadedQuests = new ArrayList<>();
+        try (var stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, playerId.toString());
             
-            try (var stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                
-                try (var rs = stmt.executeQuery()) {
-                    List<WeeklyQuest> loadedQuests = new ArrayList<>();
-                    com.google.gson.Gson gson = new com.google.gson.Gson();
+            try (var rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Parse display material
+                    Material displayMaterial = Material.valueOf(rs.getString("display_material"));
                     
-                    while (rs.next()) {
-                        // Parse display material
-                        Material displayMaterial = Material.valueOf(rs.getString("display_material"));
-                        
-                        // Parse reward
-                        String rewardJson = rs.getString("reward_data");
-                        WeeklyQuest.WeeklyReward reward = gson.fromJson(rewardJson, WeeklyQuest.WeeklyReward.class);
-                        
-                        // Create quest object
-                        WeeklyQuest quest = new WeeklyQuest(
-                            rs.getString("quest_id"),
-                            rs.getString("quest_name"),
-                            rs.getString("quest_description"),
-                            rs.getString("quest_type"),
-                            rs.getString("target"),
-                            rs.getInt("target_amount"),
-                            displayMaterial,
-                            reward
-                        );
-                        
-                        // Set progress and state
-                        quest.setCurrentProgress(rs.getInt("current_progress"));
-                        quest.setCompleted(rs.getBoolean("completed"));
-                        quest.setClaimed(rs.getBoolean("claimed"));
-                        
-                        loadedQuests.add(quest);
-                    }
+                    // Parse reward
+                    String rewardJson = rs.getString("reward_data");
+                    WeeklyQuest.WeeklyReward reward = GSON.fromJson(rewardJson, WeeklyQuest.WeeklyReward.class);
                     
-                    if (!loadedQuests.isEmpty()) {
-                        playerWeeklyQuests.put(playerId, loadedQuests);
-                        plugin.getLogger().info("Loaded " + loadedQuests.size() + " weekly quests for player " + playerId);
-                    }
+                    // Create quest object
+                    WeeklyQuest quest = new WeeklyQuest(
+                        rs.getString("quest_id"),
+                        rs.getString("quest_name"),
+                        rs.getString("quest_description"),
+                        rs.getString("quest_type"),
+                        rs.getString("target"),
+                        rs.getInt("target_amount"),
+                        displayMaterial,
+                        reward
+                    );
+                    
+                    // Set progress and state
+                    quest.setCurrentProgress(rs.getInt("current_progress"));
+                    quest.setCompleted(rs.getBoolean("completed"));
+                    quest.setClaimed(rs.getBoolean("claimed"));
+                    
+                    // Rows written before reset epochs were stored are kept until the next reset
+                    long resetEpoch = rs.getLong("reset_epoch");
+                    quest.setResetEpoch(rs.wasNull() ? plugin.getQuestResetClock().currentWeek() : resetEpoch);
+                    
+                    // Slot -1 marks a row written before sets were seeded
+                    int slot = rs.getInt("slot_index");
+                    quest.setSlot(rs.wasNull() ? -1 : slot);
+                    quest.setRerolls(rs.getInt("rerolls"));
+                    quest.setStored(true);
+                    
+                    loadedQuests.add(quest);
                 }
             }
-        } catch (Exception e) {
-            plugin.getLogger().log(java.util.logging.Level.WARNING, "Failed to load weekly quests for player " + playerId, e);
         }
+        return loadedQuests;
+    }
+
+    /**
+     * Drop a player's quests from memory once their changes have been written
+     */
+    public void unloadPlayer(UUID playerId) {
+        dirtyPlayers.remove(playerId);
+        playerWeeklyQuests.remove(playerId);
+        playerWeeklyIndexes.remove(playerId);
     }
+    
+    /**
+     * Install quests read from the database for a player
+     */
+    public void attachWeeklyQuests(UUID playerId, List<WeeklyQuest> loadedQuests) {
+        // A quick rejoin keeps the in-memory quests, which may hold progress not yet written
+        if (loadedQuests.isEmpty() || playerWeeklyQuests.containsKey(playerId)) {
+            return;
+        }
+        
+        long week = plugin.getQuestResetClock().currentWeek();
+        List<WeeklyQuest> storedQuests = loadedQuests.stream().filter(quest -> quest.getResetEpoch() == week).toList();
+        List<WeeklyQuest> quests = restoreWeeklyQuests(playerId, week, storedQuests);
+        playerWeeklyQuests.put(playerId, quests);
+        playerWeeklyIndexes.put(playerId, buildProgressIndex(quests));
+        
+        if (storedQuests.size() < loadedQuests.size()) {
+            deleteStaleQuests(playerId, week);
+        }
+        plugin.getLogger().info("Loaded " + storedQuests.size() + " weekly quests for player " + playerId);
+    }
+    
+    /**
+     * Recompute the week's set and put the stored quests back into their slots
+     */
+    private List<WeeklyQuest> restoreWeeklyQuests(UUID playerId, long week, List<WeeklyQuest> storedQuests) {
+        // Rows from before sets were seeded hold the whole set
+        if (storedQuests.stream().anyMatch(quest -> quest.getSlot() < 0)) {
+            return new ArrayList<>(storedQuests);
+        }
+        
+        List<WeeklyQuest> quests = generateNewWeeklyQuests(playerId, week);
+        for (WeeklyQuest stored : storedQuests) {
+            int slot = stored.getSlot();
+            if (slot < quests.size()) {
+                quests.set(slot, stored);
+            }
+        }
+        return quests;
+    }
+
+    private record ProgressSnapshot(UUID playerId, WeeklyQuest quest, int progress, boolean completed, boolean claimed, boolean insert) {}
 
     private static class WeeklyQuestTemplate {
         String type;
@@ -4,24 +4,29 @@ import lombok.Data;
 import org.bukkit.Material;
 
 import java.util.List;
-import java.util.Map;
 
+/**
+ * One player's roll of a {@link DailyQuestTemplate}: the template reference, the rolled target and reward
+ * amounts, and progress. Everything else is read from the shared template.
+ */
 @Data
 public class DailyQuest {
     
     private String id;
-    private String name;
-    private String description;
-    private QuestType type;
-    private Material displayMaterial;
-    private String target;
+    private final DailyQuestTemplate template;
     private int targetAmount;
-    private int currentProgress;
-    private boolean completed;
-    private boolean claimed;
-    private DailyReward reward;
-    private long createdDate; // Date when quest was created (for daily reset)
-    private Map<String, Object> requirements; // Quest requirements (materials, worlds, biomes, etc.)
+    // Progress is written by the quest worker and read on the main thread
+    private volatile int currentProgress;
+    private volatile boolean completed;
+    private volatile boolean claimed;
+    private DailyReward reward; // Rolled amounts; item and command lists are the template's
+    private long createdDate; // Date when quest was created
+    private long resetEpoch; // Day the quest set belongs to, see QuestResetClock
+    private int slot; // Position in the set; with the reset epoch and rerolls, the seed the quest was drawn from
+    private int rerolls; // How often this slot has been rerolled
+    private transient volatile boolean stored; // A database row exists; untouched quests are recomputed instead
+    private transient volatile boolean inserting; // Its first write is queued but not committed yet
+    private transient volatile boolean dirty; // Progress changed since the last database flush
     
     public enum QuestType {
         MINING,
@@ -59,14 +64,9 @@ public class DailyQuest {
         }
     }
     
-    public DailyQuest(String id, String name, String description, QuestType type, 
-                     Material displayMaterial, String target, int targetAmount, DailyReward reward) {
+    public DailyQuest(String id, DailyQuestTemplate template, int targetAmount, DailyReward reward) {
         this.id = id;
-        this.name = name;
-        this.description = description;
-        this.type = type;
-        this.displayMaterial = displayMaterial;
-        this.target = target;
+        this.template = template;
         this.targetAmount = targetAmount;
         this.currentProgress = 0;
         this.completed = false;
@@ -75,6 +75,30 @@ public class DailyQuest {
         this.createdDate = System.currentTimeMillis();
     }
     
+    public String getName() {
+        return template.name();
+    }
+    
+    public String getDescription() {
+        return template.renderDescription(targetAmount);
+    }
+    
+    public QuestType getType() {
+        return template.type();
+    }
+    
+    public Material getDisplayMaterial() {
+        return template.displayMaterial();
+    }
+    
+    public String getTarget() {
+        return template.target();
+    }
+    
+    public QuestRequirements getRequirements() {
+        return template.requirements();
+    }
+    
     public void addProgress(int amount) {
         // Validation: Prevent invalid progress updates
         if (completed) {
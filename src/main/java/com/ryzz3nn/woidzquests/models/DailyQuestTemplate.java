@@ -0,0 +1,42 @@
+package com.ryzz3nn.woidzquests.models;
+
+import org.bukkit.Material;
+
+import java.util.List;
+
+/**
+ * A daily quest as configured in DailyQuests.yml, loaded once and shared by every quest rolled from it.
+ * Quest instances only add their rolled target amount and reward values, so names, descriptions,
+ * requirements and reward lists exist once per template rather than once per player.
+ * @param target primary target the quest is indexed under
+ * @param rewardItems item rewards, parsed once
+ */
+public record DailyQuestTemplate(String id, String name, String description, DailyQuest.QuestType type,
+                                 Material displayMaterial, String target, int minAmount, int maxAmount,
+                                 int moneyMin, int moneyMax, int expMin, int expMax,
+                                 List<DailyQuest.DailyReward.RewardItem> rewardItems, List<String> commandRewards,
+                                 int weight, QuestRequirements requirements) {
+    
+    public DailyQuestTemplate {
+        rewardItems = List.copyOf(rewardItems);
+        commandRewards = List.copyOf(commandRewards);
+    }
+    
+    public String renderDescription(int targetAmount) {
+        String amount = String.valueOf(targetAmount);
+        return description.replace("{target}", amount).replace("{amount}", amount);
+    }
+    
+    /**
+     * Reward for one quest: the rolled amounts plus this template's shared item and command lists
+     */
+    public DailyQuest.DailyReward createReward(int money, int experience) {
+        DailyQuest.DailyReward reward = new DailyQuest.DailyReward();
+        reward.setMoney(money);
+        reward.setExperience(experience);
+        reward.setQuestPoints(1); // Standard 1 QP for daily quests
+        reward.setCommands(commandRewards);
+        reward.setItems(rewardItems);
+        return reward;
+    }
+}
@@ -1,12 +1,22 @@
 package com.ryzz3nn.woidzquests.models;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.bukkit.Material;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
-@Data
+// Accessors only: equality over the live counters would be meaningless, quests are compared by identity
+@Getter
+@Setter
 public class GlobalQuest {
     private String id;
     private String name;
@@ -14,13 +24,28 @@ public class GlobalQuest {
     private String type; // MINING, FISHING, COMBAT, FARMING, BUILDING, etc.
     private String target; // Material name, mob type, etc.
     private long targetAmount; // Large numbers for server-wide goals
-    private long currentProgress;
-    private boolean completed;
     private Material displayMaterial;
     private GlobalReward reward;
-    private Map<UUID, Long> playerContributions; // Track individual contributions
     private Map<UUID, Boolean> playerClaimed; // Track who claimed rewards
 
+    // Progress may be added from any thread, so counters are striped and never locked.
+    // The displayed total is the shared (network-wide) total from the last merge plus whatever
+    // this server added that the merge did not include yet.
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final LongAdder localProgress = new LongAdder(); // Everything added on this server, never reset
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private volatile MergedProgress mergedProgress = new MergedProgress(0L, 0L);
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private transient long drainedProgress; // Local progress already handed to a merge; main thread only
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final AtomicBoolean completed = new AtomicBoolean();
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final AtomicInteger announcedMilestone = new AtomicInteger(); // Last 25% step that was broadcast
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final Map<UUID, Contribution> playerContributions = new ConcurrentHashMap<>(); // Track individual contributions
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final transient AtomicBoolean dirty = new AtomicBoolean(); // Progress changed since the last database flush
+
     public GlobalQuest(String id, String name, String description, String type, String target, 
                       long targetAmount, Material displayMaterial, GlobalReward reward) {
         this.id = id;
@@ -29,60 +54,174 @@ public class GlobalQuest {
         this.type = type;
         this.target = target;
         this.targetAmount = targetAmount;
-        this.currentProgress = 0;
-        this.completed = false;
         this.displayMaterial = displayMaterial;
         this.reward = reward;
-        this.playerContributions = new HashMap<>();
-        this.playerClaimed = new HashMap<>();
+        this.playerClaimed = new ConcurrentHashMap<>();
     }
 
-    public void addProgress(UUID playerId, long amount) {
+    /**
+     * Add progress for a player. Safe to call from any thread.
+     * @return true only for the call that completed the quest
+     */
+    public boolean addProgress(UUID playerId, long amount) {
         // Validation: Prevent invalid progress updates
-        if (completed) {
-            return; // Can't add progress to completed quest
+        if (completed.get()) {
+            return false; // Can't add progress to completed quest
         }
         
         if (amount <= 0) {
             // Reject negative or zero progress
-            return;
+            return false;
         }
         
         if (amount > 100000L) {
             // Reject suspiciously large progress updates (possible exploit)
-            return;
-        }
-        
-        // Check for long overflow before adding
-        if (this.currentProgress > Long.MAX_VALUE - amount) {
-            // Would overflow, cap at target
-            this.currentProgress = this.targetAmount;
-            this.completed = true;
-            return;
+            return false;
         }
         
-        // Check player contribution overflow
-        long currentContribution = playerContributions.getOrDefault(playerId, 0L);
-        if (currentContribution > Long.MAX_VALUE - amount) {
-            // Would overflow player contribution, skip this update
-            return;
-        }
-        
-        // Safe to add progress
-        this.currentProgress += amount;
+        localProgress.add(amount);
         
         // Track individual player contribution
-        playerContributions.put(playerId, currentContribution + amount);
+        Contribution contribution = playerContributions.computeIfAbsent(playerId, k -> new Contribution());
+        contribution.total.add(amount);
+        contribution.pending.add(amount);
+        dirty.set(true);
+        
+        // Check completion; only one caller on this server wins the transition
+        return getTotalProgress() >= targetAmount && completed.compareAndSet(false, true);
+    }
+
+    /**
+     * Record that the quest reached a new 25% step
+     * @return true for the one caller that should announce it
+     */
+    public boolean advanceMilestone() {
+        int step = getProgressPercentage() / 25;
+        int announced = announcedMilestone.get();
+        while (step > announced) {
+            if (announcedMilestone.compareAndSet(announced, step)) {
+                return true;
+            }
+            announced = announcedMilestone.get();
+        }
+        return false;
+    }
+
+    /**
+     * Take the contributions added since the last call and clear the dirty flag
+     * @return per-player deltas to add to the stored totals
+     */
+    public ContributionDeltas drainPendingContributions() {
+        // Clear first so an update racing with the drain marks the quest dirty again
+        dirty.set(false);
         
-        // Check completion
-        if (this.currentProgress >= this.targetAmount) {
-            this.currentProgress = this.targetAmount; // Cap at target (no overflow)
-            this.completed = true;
+        UUID[] playerIds = new UUID[playerContributions.size()];
+        long[] amounts = new long[playerIds.length];
+        int size = 0;
+        for (Map.Entry<UUID, Contribution> entry : playerContributions.entrySet()) {
+            // Cells are reset one by one, so an add racing with the drain is kept for the next one
+            long delta = entry.getValue().pending.sumThenReset();
+            if (delta > 0) {
+                if (size == playerIds.length) {
+                    playerIds = Arrays.copyOf(playerIds, size * 2 + 1);
+                    amounts = Arrays.copyOf(amounts, playerIds.length);
+                }
+                playerIds[size] = entry.getKey();
+                amounts[size++] = delta;
+            }
         }
+        return new ContributionDeltas(playerIds, amounts, size);
+    }
+
+    /**
+     * Take the progress added on this server since the last call. Main thread only.
+     * @return the amount to add to the shared total
+     */
+    public long drainPendingProgress() {
+        // Cells only grow, so a sum taken during concurrent adds never counts anything twice
+        long total = localProgress.sum();
+        long delta = total - drainedProgress;
+        drainedProgress = total;
+        return delta;
+    }
+
+    /**
+     * Hand back deltas from a merge that failed so the next merge sends them again. Main thread only.
+     */
+    public void restorePending(long progressDelta, ContributionDeltas contributionDeltas) {
+        drainedProgress -= progressDelta;
+        for (int i = 0; i < contributionDeltas.size(); i++) {
+            playerContributions.computeIfAbsent(contributionDeltas.playerIds()[i], k -> new Contribution())
+                .pending.add(contributionDeltas.amounts()[i]);
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * Local progress handed to merges so far; pass it back with the merged total
+     */
+    public long getDrainedProgress() {
+        return drainedProgress;
+    }
+
+    /**
+     * Adopt the shared total read back after a merge
+     * @param drained local progress that the shared total already includes
+     */
+    public void applyMergedProgress(long sharedProgress, long drained) {
+        mergedProgress = new MergedProgress(sharedProgress, drained);
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    public long getCurrentProgress() {
+        return Math.min(getTotalProgress(), targetAmount);
+    }
+
+    private long getTotalProgress() {
+        MergedProgress merged = mergedProgress;
+        return merged.shared() + localProgress.sum() - merged.drained();
+    }
+
+    /**
+     * Replace the shared progress, used when loading from the database
+     */
+    public void setCurrentProgress(long currentProgress) {
+        applyMergedProgress(currentProgress, localProgress.sum());
+        drainedProgress = localProgress.sum();
+        announcedMilestone.set(getProgressPercentage() / 25);
+    }
+
+    public boolean isCompleted() {
+        return completed.get();
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed.set(completed);
+    }
+
+    /**
+     * Players with a contribution cell (live view)
+     */
+    public Set<UUID> getContributors() {
+        return playerContributions.keySet();
     }
 
     public long getPlayerContribution(UUID playerId) {
-        return playerContributions.getOrDefault(playerId, 0L);
+        Contribution contribution = playerContributions.get(playerId);
+        return contribution != null ? contribution.total.sum() : 0L;
+    }
+
+    /**
+     * Replace a player's stored contribution, used when loading from the database.
+     * Contributions not yet written stay pending.
+     */
+    public void setPlayerContribution(UUID playerId, long contribution) {
+        LongAdder total = playerContributions.computeIfAbsent(playerId, k -> new Contribution()).total;
+        total.reset();
+        total.add(contribution);
     }
 
     public boolean hasPlayerClaimed(UUID playerId) {
@@ -93,29 +232,38 @@ public class GlobalQuest {
         playerClaimed.put(playerId, claimed);
     }
 
+    /**
+     * Mark the reward as claimed for a player
+     * @return false if the player had already claimed it
+     */
+    public boolean tryClaim(UUID playerId) {
+        return !Boolean.TRUE.equals(playerClaimed.put(playerId, true));
+    }
+
+    /**
+     * Read progress and completion once so every derived value agrees
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(getCurrentProgress(), targetAmount, completed.get());
+    }
+
     public int getProgressPercentage() {
-        if (targetAmount == 0) return 0;
-        return (int) Math.min(100, (currentProgress * 100) / targetAmount);
+        return snapshot().getProgressPercentage();
     }
 
     public String getProgressColor() {
-        int percentage = getProgressPercentage();
-        if (percentage >= 100) return "<gold>"; // Gold for completion
-        if (percentage >= 75) return "<green>";
-        if (percentage >= 50) return "<yellow>";
-        if (percentage >= 25) return "<#FFA500>"; // Orange hex color
-        return "<red>"; // Low progress
+        return snapshot().getProgressColor();
     }
 
     public String getFormattedProgress() {
-        return formatLargeNumber(currentProgress);
+        return snapshot().getFormattedProgress();
     }
 
     public String getFormattedTarget() {
         return formatLargeNumber(targetAmount);
     }
 
-    private String formatLargeNumber(long number) {
+    private static String formatLargeNumber(long number) {
         if (number >= 1_000_000) {
             return String.format("%.1fM", number / 1_000_000.0);
         } else if (number >= 1_000) {
@@ -124,6 +272,49 @@ public class GlobalQuest {
         return String.valueOf(number);
     }
 
+    private record MergedProgress(long shared, long drained) {}
+
+    /**
+     * One player's contribution: the total shown in game and the part not yet written
+     */
+    private static final class Contribution {
+        final LongAdder total = new LongAdder();
+        final LongAdder pending = new LongAdder();
+    }
+
+    /**
+     * Drained per-player deltas; the first size entries of both arrays are used
+     */
+    public record ContributionDeltas(UUID[] playerIds, long[] amounts, int size) {}
+
+    /**
+     * Consistent view of a quest's progress for display
+     */
+    public record Snapshot(long currentProgress, long targetAmount, boolean completed) {
+
+        public int getProgressPercentage() {
+            if (targetAmount == 0) return 0;
+            return (int) Math.min(100, (currentProgress * 100) / targetAmount);
+        }
+
+        public String getProgressColor() {
+            int percentage = getProgressPercentage();
+            if (percentage >= 100) return "<gold>"; // Gold for completion
+            if (percentage >= 75) return "<green>";
+            if (percentage >= 50) return "<yellow>";
+            if (percentage >= 25) return "<#FFA500>"; // Orange hex color
+            return "<red>"; // Low progress
+        }
+
+        public String getFormattedProgress() {
+            return formatLargeNumber(currentProgress);
+        }
+
+        public String getFormattedTarget() {
+            return formatLargeNumber(targetAmount);
+        }
+    }
+
     @Data
     public static class GlobalReward {
         private double money;
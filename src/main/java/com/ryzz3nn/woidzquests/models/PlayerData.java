@@ -7,8 +7,12 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Data
 @Builder
@@ -30,8 +34,14 @@ public class PlayerData {
     
     private int totalQuestsCompleted;
     
+    // Stored data_version this copy was read or last written at; advanced once a write commits
+    private volatile long version;
+    
+    // Values as of that version (null if never stored), so a rejected write can be rebased onto a newer row
+    private volatile Snapshot storedState;
+    
     @Builder.Default
-    private Map<String, Integer> statistics = new HashMap<>();
+    private Map<String, Integer> statistics = new ConcurrentHashMap<>(); // Updated by the quest worker
     
     @Builder.Default
     private Map<String, Object> settings = new HashMap<>();
@@ -75,7 +85,7 @@ public class PlayerData {
     }
     
     public void addStatistic(String key, int value) {
-        statistics.put(key, statistics.getOrDefault(key, 0) + value);
+        statistics.merge(key, value, Integer::sum);
     }
     
     public int getStatistic(String key) {
@@ -94,16 +104,60 @@ public class PlayerData {
         return defaultValue;
     }
     
-    public boolean needsDailyReset() {
-        if (lastDailyReset == null) return true;
-        LocalDateTime now = LocalDateTime.now();
-        return !lastDailyReset.toLocalDate().equals(now.toLocalDate());
+    /**
+     * Copy of the counters that other servers may also change
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(questPoints, dailyRerolls, weeklyRerolls, lastDailyReset, lastWeeklyReset,
+            totalQuestsCompleted, Map.copyOf(statistics));
     }
     
-    public boolean needsWeeklyReset() {
-        if (lastWeeklyReset == null) return true;
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekStart = now.minusDays(now.getDayOfWeek().getValue() - 1);
-        return lastWeeklyReset.isBefore(weekStart);
+    /**
+     * Record a committed write of this copy
+     */
+    public void markStored(long version, Snapshot written) {
+        this.version = version;
+        this.storedState = written;
     }
+    
+    /**
+     * Move this copy onto a newer stored row after its write was rejected: counters keep the changes made
+     * here since storedState on top of the stored values, and rerolls take the stored values unless they
+     * were changed here
+     */
+    public void rebase(PlayerData stored) {
+        Snapshot base = storedState;
+        Snapshot latest = stored.snapshot();
+        
+        questPoints += latest.questPoints() - (base != null ? base.questPoints() : 0);
+        totalQuestsCompleted += latest.totalQuestsCompleted() - (base != null ? base.totalQuestsCompleted() : 0);
+        
+        Map<String, Integer> baseStatistics = base != null ? base.statistics() : Map.of();
+        Set<String> keys = new HashSet<>(latest.statistics().keySet());
+        keys.addAll(baseStatistics.keySet());
+        for (String key : keys) {
+            int difference = latest.statistics().getOrDefault(key, 0) - baseStatistics.getOrDefault(key, 0);
+            if (difference != 0) {
+                statistics.merge(key, difference, Integer::sum);
+            }
+        }
+        
+        if (base == null || (dailyRerolls == base.dailyRerolls() && Objects.equals(lastDailyReset, base.lastDailyReset()))) {
+            dailyRerolls = latest.dailyRerolls();
+            lastDailyReset = latest.lastDailyReset();
+        }
+        if (base == null || (weeklyRerolls == base.weeklyRerolls() && Objects.equals(lastWeeklyReset, base.lastWeeklyReset()))) {
+            weeklyRerolls = latest.weeklyRerolls();
+            lastWeeklyReset = latest.lastWeeklyReset();
+        }
+        if (stored.getJoinDate() != null) {
+            joinDate = stored.getJoinDate();
+        }
+        
+        version = stored.getVersion();
+        storedState = latest;
+    }
+    
+    public record Snapshot(int questPoints, int dailyRerolls, int weeklyRerolls, LocalDateTime lastDailyReset,
+                           LocalDateTime lastWeeklyReset, int totalQuestsCompleted, Map<String, Integer> statistics) {}
 }
@@ -0,0 +1,21 @@
+package com.ryzz3nn.woidzquests.models;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Everything stored for a player, read in one go before they join
+ */
+@Data
+@Builder
+public class PlayerSession {
+    
+    private final UUID uuid;
+    private final PlayerData playerData; // null for players without stored data
+    private final List<DailyQuest> dailyQuests;
+    private final List<WeeklyQuest> weeklyQuests;
+    private final long loadedAt;
+}
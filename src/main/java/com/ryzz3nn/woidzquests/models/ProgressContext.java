@@ -0,0 +1,61 @@
+package com.ryzz3nn.woidzquests.models;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+/**
+ * What a legacy quest progress event happened to, as read by the quest requirement checks.
+ * Materials are enum constants and world names/biome keys are the server's own strings, so building one
+ * copies references only. Listeners build it once {@code QuestManager.isTracking} says a quest cares.
+ * @param material block, item or catch involved (null when not applicable)
+ * @param entityType mob involved (null when not applicable)
+ * @param world world name (null when not applicable)
+ * @param biome biome key (null when not applicable)
+ * @param y block Y level, or {@link #NO_Y}
+ * @param fromSmelting the item came out of a furnace
+ */
+public record ProgressContext(Material material, EntityType entityType, String world, String biome, int y, boolean fromSmelting) {
+    
+    public static final int NO_Y = Integer.MIN_VALUE;
+    
+    // Events with nothing for requirements to check (e.g. Jobs rewards)
+    public static final ProgressContext NONE = new ProgressContext(null, null, null, null, NO_Y, false);
+    
+    public static ProgressContext ofBlock(Block block) {
+        return new ProgressContext(block.getType(), null, block.getWorld().getName(),
+            block.getBiome().getKey().getKey(), block.getY(), false);
+    }
+    
+    public static ProgressContext ofItem(Material material, boolean fromSmelting) {
+        return new ProgressContext(material, null, null, null, NO_Y, fromSmelting);
+    }
+    
+    public static ProgressContext ofEntity(Entity entity) {
+        Location location = entity.getLocation();
+        return new ProgressContext(null, entity.getType(), location.getWorld().getName(), biomeAt(location), NO_Y, false);
+    }
+    
+    public static ProgressContext at(Location location) {
+        return at(location, null);
+    }
+    
+    public static ProgressContext at(Location location, Material material) {
+        return new ProgressContext(material, null, location.getWorld().getName(), biomeAt(location), NO_Y, false);
+    }
+    
+    public static ProgressContext inWorld(World world) {
+        return new ProgressContext(null, null, world.getName(), null, NO_Y, false);
+    }
+    
+    private static String biomeAt(Location location) {
+        return location.getWorld().getBiome(location.getBlockX(), location.getBlockY(), location.getBlockZ()).getKey().getKey();
+    }
+    
+    public boolean hasY() {
+        return y != NO_Y;
+    }
+}
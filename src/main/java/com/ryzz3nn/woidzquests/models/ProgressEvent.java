@@ -0,0 +1,11 @@
+package com.ryzz3nn.woidzquests.models;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One quest progress increment captured by a listener and applied later by the quest worker.
+ * An event can carry several target tags (e.g. a catch is ANY_FISH, COD and TIER_3_FISH at once);
+ * each matching quest is progressed once per event, however many of its tags it listens for.
+ */
+public record ProgressEvent(UUID playerId, DailyQuest.QuestType type, Set<String> targets, int amount) {}
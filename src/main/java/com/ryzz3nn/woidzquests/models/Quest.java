@@ -30,6 +30,7 @@ public class Quest {
     private boolean tracked;
     
     private Map<String, Object> requirements;
+    private transient QuestRequirements compiledRequirements; // Compiled from requirements on first check
     private Map<String, Object> rewards;
     private Map<String, Object> questData;
     
@@ -70,6 +71,18 @@ public class Quest {
         }
     }
     
+    public void setRequirements(Map<String, Object> requirements) {
+        this.requirements = requirements;
+        this.compiledRequirements = null;
+    }
+    
+    public QuestRequirements getCompiledRequirements() {
+        if (compiledRequirements == null) {
+            compiledRequirements = QuestRequirements.compile(requirements);
+        }
+        return compiledRequirements;
+    }
+    
     public boolean canProgress() {
         return status == QuestStatus.ACTIVE && !isExpired() && progress < target;
     }
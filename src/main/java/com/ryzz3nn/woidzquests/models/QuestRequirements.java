@@ -0,0 +1,106 @@
+package com.ryzz3nn.woidzquests.models;
+
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A quest's requirement filters compiled once from their config/JSON form into lookup sets and a primitive
+ * Y range. Immutable and shared by every quest generated from the same template, so checking an event
+ * costs a few set lookups no matter how long the requirement lists are.
+ * @param source the requirements as configured, kept for persistence
+ * @param materials allowed materials (null = any)
+ * @param mobTypes allowed mob types (null = any)
+ * @param worlds allowed world names (null = any)
+ * @param biomes allowed biome keys (null = any)
+ * @param targets every material, mob type and item name listed, for the progress index
+ */
+public record QuestRequirements(Map<String, Object> source, Set<Material> materials, Set<EntityType> mobTypes,
+                                Set<String> worlds, Set<String> biomes, int yMin, int yMax,
+                                boolean fromSmelting, Set<String> targets) {
+    
+    public static final QuestRequirements NONE = compile(null);
+    
+    /**
+     * @param requirements requirement map as read from YAML or JSON (JSON numbers arrive as doubles)
+     */
+    public static QuestRequirements compile(Map<String, Object> requirements) {
+        Map<String, Object> source = requirements != null ? Collections.unmodifiableMap(requirements) : Map.of();
+        
+        Set<String> targets = new LinkedHashSet<>();
+        for (String key : List.of("materials", "mob_types", "items")) {
+            targets.addAll(names(source.get(key)));
+        }
+        
+        return new QuestRequirements(
+            source,
+            enumSet(Material.class, source.get("materials")),
+            enumSet(EntityType.class, source.get("mob_types")),
+            stringSet(source.get("worlds")),
+            stringSet(source.get("biomes")),
+            source.get("y_min") instanceof Number yMin ? yMin.intValue() : Integer.MIN_VALUE,
+            source.get("y_max") instanceof Number yMax ? yMax.intValue() : Integer.MAX_VALUE,
+            Boolean.TRUE.equals(source.get("from_smelting")),
+            Collections.unmodifiableSet(targets)
+        );
+    }
+    
+    /**
+     * Whether an event passes every filter. Filters the event has no value for are skipped,
+     * e.g. a crafting event carries no world.
+     */
+    public boolean test(ProgressContext context) {
+        if (fromSmelting && !context.fromSmelting()) {
+            return false; // Quest requires smelting, but this didn't come from smelting
+        }
+        if (materials != null && context.material() != null && !materials.contains(context.material())) {
+            return false;
+        }
+        if (mobTypes != null && context.entityType() != null && !mobTypes.contains(context.entityType())) {
+            return false;
+        }
+        if (worlds != null && context.world() != null && !worlds.contains(context.world())) {
+            return false;
+        }
+        if (biomes != null && context.biome() != null && !biomes.contains(context.biome())) {
+            return false;
+        }
+        return !context.hasY() || (context.y() >= yMin && context.y() <= yMax);
+    }
+    
+    private static List<String> names(Object value) {
+        if (!(value instanceof Collection<?> collection)) {
+            return List.of();
+        }
+        return collection.stream().map(String::valueOf).toList();
+    }
+    
+    private static Set<String> stringSet(Object value) {
+        return value instanceof Collection<?> ? Set.copyOf(names(value)) : null;
+    }
+    
+    private static <T extends Enum<T>> Set<T> enumSet(Class<T> type, Object value) {
+        if (!(value instanceof Collection<?>)) {
+            return null;
+        }
+        
+        // Names unknown to this server version can never match, as before
+        Set<T> set = EnumSet.noneOf(type);
+        for (String name : names(value)) {
+            try {
+                set.add(Enum.valueOf(type, name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ignored) {
+                // Not a constant of this type
+            }
+        }
+        return Collections.unmodifiableSet(set);
+    }
+}
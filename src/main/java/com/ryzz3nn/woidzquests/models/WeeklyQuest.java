@@ -11,11 +11,18 @@ public class WeeklyQuest {
     private String type; // MINING, FISHING, COMBAT, FARMING, BUILDING, etc.
     private String target; // Material name, mob type, etc.
     private int targetAmount;
-    private int currentProgress;
-    private boolean completed;
-    private boolean claimed;
+    // Progress is written by the quest worker and read on the main thread
+    private volatile int currentProgress;
+    private volatile boolean completed;
+    private volatile boolean claimed;
     private Material displayMaterial;
     private WeeklyReward reward;
+    private long resetEpoch; // Week the quest set belongs to, see QuestResetClock
+    private int slot; // Position in the set; with the reset epoch and rerolls, the seed the quest was drawn from
+    private int rerolls; // How often this slot has been rerolled
+    private transient volatile boolean stored; // A database row exists; untouched quests are recomputed instead
+    private transient volatile boolean inserting; // Its first write is queued but not committed yet
+    private transient volatile boolean dirty; // Changed since the last database flush
 
     public WeeklyQuest(String id, String name, String description, String type, String target, 
                       int targetAmount, Material displayMaterial, WeeklyReward reward) {
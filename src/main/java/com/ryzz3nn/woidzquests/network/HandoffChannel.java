@@ -0,0 +1,22 @@
+package com.ryzz3nn.woidzquests.network;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcast transport for handoff messages between the servers of a network.
+ * Messages go to every other server; delivery is best effort, so receivers must cope with lost messages.
+ */
+public interface HandoffChannel {
+    
+    /**
+     * Send a message to every other server. May be called from any thread.
+     */
+    void publish(HandoffMessage message);
+    
+    /**
+     * Register the receiver of incoming messages; it may be called on any thread
+     */
+    void subscribe(Consumer<HandoffMessage> listener);
+    
+    void close();
+}
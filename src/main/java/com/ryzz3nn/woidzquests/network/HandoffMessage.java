@@ -0,0 +1,62 @@
+package com.ryzz3nn.woidzquests.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * One step of the player handoff protocol between servers sharing a database
+ * @param server name of the sending server
+ * @param version player data version the sender has committed (0 when not relevant)
+ */
+public record HandoffMessage(Type type, UUID playerId, String server, long version) {
+    
+    // Bumped when the wire format changes; messages from other protocol versions are ignored
+    public static final int PROTOCOL_VERSION = 1;
+    
+    public enum Type {
+        CLAIM,    // The player joined the sender, which now owns their data
+        REQUEST,  // The sender is logging the player in and waits for the owner to release them
+        RELEASED  // The sender has committed the player's data at the given version and stopped writing it
+    }
+    
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PROTOCOL_VERSION);
+            out.writeByte(type.ordinal());
+            out.writeLong(playerId.getMostSignificantBits());
+            out.writeLong(playerId.getLeastSignificantBits());
+            out.writeUTF(server);
+            out.writeLong(version);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * @return null if the data is not a message of this protocol version
+     */
+    public static HandoffMessage decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != PROTOCOL_VERSION) {
+                return null;
+            }
+            
+            int type = in.readByte();
+            if (type < 0 || type >= Type.values().length) {
+                return null;
+            }
+            
+            UUID playerId = new UUID(in.readLong(), in.readLong());
+            return new HandoffMessage(Type.values()[type], playerId, in.readUTF(), in.readLong());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
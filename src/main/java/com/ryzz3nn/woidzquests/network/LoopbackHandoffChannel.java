@@ -0,0 +1,55 @@
+package com.ryzz3nn.woidzquests.network;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process channel: every channel opened on the same network name in this JVM receives the others'
+ * messages. Used for tests and single-server setups; messages still go through the wire encoding.
+ */
+public class LoopbackHandoffChannel implements HandoffChannel {
+    
+    private static final Map<String, List<LoopbackHandoffChannel>> NETWORKS = new ConcurrentHashMap<>();
+    
+    private final String network;
+    private final List<Consumer<HandoffMessage>> listeners = new CopyOnWriteArrayList<>();
+    
+    public LoopbackHandoffChannel(String network) {
+        this.network = network;
+        NETWORKS.computeIfAbsent(network, k -> new CopyOnWriteArrayList<>()).add(this);
+    }
+    
+    @Override
+    public void publish(HandoffMessage message) {
+        byte[] data = message.encode();
+        for (LoopbackHandoffChannel channel : NETWORKS.getOrDefault(network, List.of())) {
+            if (channel != this) {
+                channel.deliver(data);
+            }
+        }
+    }
+    
+    private void deliver(byte[] data) {
+        HandoffMessage message = HandoffMessage.decode(data);
+        if (message != null) {
+            listeners.forEach(listener -> listener.accept(message));
+        }
+    }
+    
+    @Override
+    public void subscribe(Consumer<HandoffMessage> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void close() {
+        listeners.clear();
+        NETWORKS.computeIfPresent(network, (k, channels) -> {
+            channels.remove(this);
+            return channels.isEmpty() ? null : channels;
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.ryzz3nn.woidzquests.network;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Sends handoff messages through the proxy with the BungeeCord "Forward" plugin message
+ * (understood by BungeeCord, Waterfall and Velocity with its BungeeCord channel enabled).
+ * Plugin messages ride on a player connection, so a server with nobody online can neither send nor
+ * receive; the waiting server then times out and relies on the stored data version instead.
+ */
+public class ProxyHandoffChannel implements HandoffChannel, PluginMessageListener {
+    
+    private static final String PROXY_CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "WoidZQuestsHandoff";
+    
+    private final Plugin plugin;
+    private final List<Consumer<HandoffMessage>> listeners = new CopyOnWriteArrayList<>();
+    
+    public ProxyHandoffChannel(Plugin plugin) {
+        this.plugin = plugin;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, PROXY_CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, PROXY_CHANNEL, this);
+    }
+    
+    @Override
+    public void publish(HandoffMessage message) {
+        byte[] forward = encodeForward(message.encode());
+        
+        // Plugin messages must be sent from the main thread
+        if (plugin.getServer().isPrimaryThread()) {
+            send(forward);
+        } else if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> send(forward));
+        }
+    }
+    
+    private void send(byte[] forward) {
+        Player carrier = plugin.getServer().getOnlinePlayers().stream().findFirst().orElse(null);
+        if (carrier != null) {
+            carrier.sendPluginMessage(plugin, PROXY_CHANNEL, forward);
+        }
+    }
+    
+    private byte[] encodeForward(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(data.length);
+            out.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!PROXY_CHANNEL.equals(channel)) {
+            return;
+        }
+        
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!SUBCHANNEL.equals(in.readUTF())) {
+                return;
+            }
+            
+            byte[] data = new byte[in.readUnsignedShort()];
+            in.readFully(data);
+            
+            HandoffMessage handoffMessage = HandoffMessage.decode(data);
+            if (handoffMessage != null) {
+                listeners.forEach(listener -> listener.accept(handoffMessage));
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.FINE, "Ignoring malformed handoff message", e);
+        }
+    }
+    
+    @Override
+    public void subscribe(Consumer<HandoffMessage> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void close() {
+        listeners.clear();
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, PROXY_CHANNEL);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, PROXY_CHANNEL, this);
+    }
+}